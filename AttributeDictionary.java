@@ -0,0 +1,81 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AttributeDictionary.java
+ *
+ * Gives each distinct value of an attribute that only has a few possible values (a store name, a
+ * material, or a colour) a small integer code, starting at 0. Products can then hold and compare
+ * codes instead of strings. Looking up a code or a value never takes a lock.
+ * Codes are never reused or changed once given out, so they can also serve as ids (the
+ * UserDirectory numbers users by email this way).
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-14-2022
+ *
+ */
+
+public class AttributeDictionary {
+    public static final int NOT_FOUND = -1;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private volatile int size;
+
+    /**
+     * @param value - value being encoded
+     * @return      - the value's code, giving it a new one if it doesn't have one yet
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            code = codes.get(value);
+
+            if (code != null) {
+                return code;
+            }
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * @param value - value being looked up
+     * @return      - the value's code, or NOT_FOUND if it has never been encoded
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return (code == null ? NOT_FOUND : code);
+    }
+
+    /**
+     * @param code - code given out by encode()
+     * @return     - the value with that code
+     */
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * @return - number of distinct values
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,385 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Autocomplete.java
+ *
+ * Suggests completions of what a shopper has typed so far, most popular first. Every term (such
+ * as a product or store name) is stored in a prefix trie, ignoring case, and is weighted by the
+ * total weight (units sold) of the items it belongs to. Each node of the trie keeps the ids of
+ * the best few terms below it, so a suggestion is a walk down the trie as long as the prefix
+ * followed by reading one short list, no matter how many terms start with the prefix.
+ *
+ * When an item's weight or terms change, only the nodes on the paths to its terms are updated.
+ * A weight going up (a sale) just moves the term up those nodes' lists; anything else rebuilds
+ * each list from the node's own term and its children's lists.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-22-2022
+ *
+ */
+
+public class Autocomplete<T> {
+    public static final int DEFAULT_MAX_SUGGESTIONS = 5;
+
+    private final int maxSuggestions;
+    private final Node root;
+
+    private final HashMap<String, Integer> termIds = new HashMap<>();
+    private final ArrayList<String> terms = new ArrayList<>();
+    private final ArrayList<String> keys = new ArrayList<>();
+    private long[] termWeights = new long[16];
+    private int[] termItems = new int[16];
+
+    private final HashMap<T, Item> items = new HashMap<>();
+
+    /**
+     * @param maxSuggestions - most suggestions given for a prefix
+     */
+    public Autocomplete(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+        this.root = new Node();
+    }
+
+    public Autocomplete() {
+        this(DEFAULT_MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Adds an item, whose weight counts towards each of its terms.
+     *
+     * @param item   - item being added
+     * @param weight - weight of the item, such as how many have sold
+     * @param names  - terms the item can be found by
+     */
+    public synchronized void add(T item, long weight, String... names) {
+        remove(item);
+
+        int[] ids = new int[names.length];
+        int count = 0;
+
+        // A name given twice (such as a product named after its store) only counts once
+        for (String name : names) {
+            int id = termId(name);
+
+            if (!contains(ids, count, id)) {
+                ids[count++] = id;
+                termItems[id]++;
+            }
+        }
+
+        Item added = new Item(Arrays.copyOf(ids, count), weight);
+        items.put(item, added);
+        changeWeights(added, weight);
+    }
+
+    /**
+     * Changes the terms an item can be found by, such as after a product is renamed.
+     *
+     * @param item  - item being changed
+     * @param names - the item's terms
+     */
+    public synchronized void update(T item, String... names) {
+        Item existing = items.get(item);
+        add(item, (existing == null ? 0 : existing.weight), names);
+    }
+
+    /**
+     * @param item   - item whose weight has increased, such as after a purchase
+     * @param amount - amount it increased by
+     */
+    public synchronized void addWeight(T item, long amount) {
+        Item existing = items.get(item);
+
+        if (existing != null) {
+            existing.weight += amount;
+            changeWeights(existing, amount);
+        }
+    }
+
+    /**
+     * @param item - item being removed
+     */
+    public synchronized void remove(T item) {
+        Item removed = items.remove(item);
+
+        if (removed == null) {
+            return;
+        }
+
+        for (int id : removed.termIds) {
+            termItems[id]--;
+        }
+
+        changeWeights(removed, -removed.weight);
+    }
+
+    /**
+     * @param prefix - what has been typed so far
+     * @return       - up to maxSuggestions terms starting with the prefix, highest weight first
+     */
+    public synchronized ArrayList<String> suggest(String prefix) {
+        ArrayList<String> suggestions = new ArrayList<>();
+        Node node = find(prefix.toLowerCase().trim());
+
+        if (node != null) {
+            for (int i = 0; i < node.topSize; i++) {
+                suggestions.add(terms.get(node.top[i]));
+            }
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * @return - the id of a term, adding it to the trie if it isn't there yet
+     */
+    private int termId(String name) {
+        String key = name.toLowerCase().trim();
+        Integer id = termIds.get(key);
+
+        if (id != null) {
+            return id;
+        }
+
+        id = terms.size();
+        termIds.put(key, id);
+        terms.add(name.trim());
+        keys.add(key);
+
+        if (id == termWeights.length) {
+            termWeights = Arrays.copyOf(termWeights, id * 2);
+            termItems = Arrays.copyOf(termItems, id * 2);
+        }
+
+        Node node = root;
+
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i), true);
+        }
+
+        node.termId = id;
+        return id;
+    }
+
+    private static boolean contains(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void changeWeights(Item item, long amount) {
+        for (int id : item.termIds) {
+            termWeights[id] += amount;
+
+            if (amount >= 0 && termItems[id] > 0) {
+                promotePath(id);
+            } else {
+                refreshPath(id);
+            }
+        }
+    }
+
+    private Node[] path(int id) {
+        String key = keys.get(id);
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i), false);
+        }
+
+        return path;
+    }
+
+    /**
+     * Moves a term whose weight has gone up into its place in the list of every node on the
+     * path to it. Nothing else in those lists has changed, so only the term itself needs to
+     * move, and once it doesn't make a node's list it can't make any node's list above that.
+     */
+    private void promotePath(int id) {
+        Node[] path = path(id);
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (!promote(path[i], id)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return - false if the term didn't make the node's list
+     */
+    private boolean promote(Node node, int id) {
+        if (node.top.length != maxSuggestions) {
+            node.top = Arrays.copyOf(node.top, maxSuggestions);
+        }
+
+        int[] best = node.top;
+        int index = 0;
+
+        while (index < node.topSize && best[index] != id) {
+            index++;
+        }
+
+        if (index == node.topSize) {
+            if (node.topSize < best.length) {
+                node.topSize++;
+            } else if (ranksAbove(id, best[best.length - 1])) {
+                index = best.length - 1;
+            } else {
+                return false;
+            }
+        }
+
+        while (index > 0 && ranksAbove(id, best[index - 1])) {
+            best[index] = best[index - 1];
+            index--;
+        }
+
+        best[index] = id;
+        return true;
+    }
+
+    /**
+     * Rebuilds the list of every node on the path to a term, from the bottom up, since those
+     * are the only nodes whose lists can include it.
+     */
+    private void refreshPath(int id) {
+        Node[] path = path(id);
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            refresh(path[i]);
+        }
+    }
+
+    private void refresh(Node node) {
+        if (node.top.length != maxSuggestions) {
+            node.top = new int[maxSuggestions];
+        }
+
+        int[] best = node.top;
+        int size = 0;
+
+        if (node.termId >= 0 && termItems[node.termId] > 0) {
+            best[size++] = node.termId;
+        }
+
+        for (int c = 0; c < node.childCount; c++) {
+            Node child = node.children[c];
+
+            // The child's list is in order too, so once one of its terms doesn't make it in,
+            // none of the rest will
+            for (int i = 0; i < child.topSize; i++) {
+                if (size == best.length && !ranksAbove(child.top[i], best[size - 1])) {
+                    break;
+                }
+
+                size = insert(best, size, child.top[i]);
+            }
+        }
+
+        node.topSize = size;
+    }
+
+    /**
+     * Inserts a term into a list kept in order of weight, dropping the lowest if it is full.
+     *
+     * @return - the new size of the list
+     */
+    private int insert(int[] best, int size, int id) {
+        int index = size;
+
+        while (index > 0 && ranksAbove(id, best[index - 1])) {
+            index--;
+        }
+
+        if (index == best.length) {
+            return size;
+        }
+
+        int moved = Math.min(size, best.length - 1) - index;
+        System.arraycopy(best, index, best, index + 1, moved);
+        best[index] = id;
+
+        return Math.min(size + 1, best.length);
+    }
+
+    private boolean ranksAbove(int a, int b) {
+        if (termWeights[a] != termWeights[b]) {
+            return termWeights[a] > termWeights[b];
+        }
+
+        return terms.get(a).compareToIgnoreCase(terms.get(b)) < 0;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i), false);
+        }
+
+        return node;
+    }
+
+    private static class Item {
+        private final int[] termIds;
+        private long weight;
+
+        private Item(int[] termIds, long weight) {
+            this.termIds = termIds;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A node of the trie. Children are kept in arrays sorted by character, rather than in a map,
+     * to keep the many small nodes small.
+     */
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private int termId = -1;
+        private int[] top = new int[0];
+        private int topSize;
+
+        private Node child(char label, boolean create) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+
+            if (index >= 0) {
+                return children[index];
+            }
+
+            if (!create) {
+                return null;
+            }
+
+            index = -index - 1;
+
+            if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(2, childCount * 2));
+                children = Arrays.copyOf(children, labels.length);
+            }
+
+            System.arraycopy(labels, index, labels, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            labels[index] = label;
+            children[index] = new Node();
+            childCount++;
+
+            return children[index];
+        }
+    }
+}
@@ -0,0 +1,539 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * CompressedBitmap.java
+ *
+ * A set of non-negative ints stored the way Roaring bitmaps store them. The ints are grouped by
+ * their upper 16 bits, and each group keeps its lower 16 bits in whichever form is smaller: a
+ * sorted array when the group has at most ARRAY_LIMIT values, or a bitmap of 65536 bits when it
+ * has more. A set of a few scattered ints is then about as small as an array of them, a dense set
+ * is about as small as a plain bitmap, and AND/OR work a group at a time, skipping groups that
+ * only one side has.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-21-2022
+ *
+ */
+
+public class CompressedBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = (1 << 16) / Long.SIZE;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * @param value - int to add
+     */
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int index = indexOf(key);
+
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+
+        containers[index] = containers[index].add((char) value);
+    }
+
+    /**
+     * @param value - int to remove
+     */
+    public void remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+
+        if (index < 0) {
+            return;
+        }
+
+        containers[index] = containers[index].remove((char) value);
+
+        if (containers[index].cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            size--;
+        }
+    }
+
+    public boolean contains(int value) {
+        int index = indexOf((char) (value >>> 16));
+        return (index >= 0 && containers[index].contains((char) value));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * @param other - another bitmap
+     * @return      - a new bitmap of the ints in both
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+
+                if (c.cardinality() > 0) {
+                    result.insert(result.size, keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param other - another bitmap
+     * @return      - number of ints in both, without building the result
+     */
+    public int andCardinality(CompressedBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * @param other - another bitmap
+     * @return      - a new bitmap of the ints in either
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.insert(result.size, keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.insert(result.size, other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.insert(result.size, keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Calls the consumer with every int in the bitmap, smallest first.
+     *
+     * @param consumer - called once per int
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap result = new CompressedBitmap();
+
+        for (int i = 0; i < size; i++) {
+            result.insert(i, keys[i], containers[i].copy());
+        }
+
+        return result;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * The lower 16 bits of the ints in one group. Operations that can change which form is
+     * smaller return the container to use from then on.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container copy();
+    }
+
+    private static class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                return this;
+            }
+
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+
+            index = -index - 1;
+
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+            }
+
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer a = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < a.cardinality) {
+                    if (values[i] < a.values[j]) {
+                        i++;
+                    } else if (values[i] > a.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer a = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < a.cardinality) {
+                    if (values[i] < a.values[j]) {
+                        i++;
+                    } else if (values[i] > a.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer)) {
+                return other.or(this);
+            }
+
+            ArrayContainer a = (ArrayContainer) other;
+
+            if (cardinality + a.cardinality > ARRAY_LIMIT) {
+                return toBitmap().or(a);
+            }
+
+            char[] result = new char[cardinality + a.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < cardinality || j < a.cardinality) {
+                if (j == a.cardinality || (i < cardinality && values[i] < a.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > a.values[j]) {
+                    result[count++] = a.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+
+            return bitmap;
+        }
+    }
+
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+
+            if (before != words[value >>> 6]) {
+                cardinality++;
+            }
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+
+            if (before != words[value >>> 6]) {
+                cardinality--;
+            }
+
+            return (cardinality <= ARRAY_LIMIT ? toArray() : this);
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            long[] result = new long[BITMAP_WORDS];
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return (count <= ARRAY_LIMIT ? bitmap.toArray() : bitmap);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer a = (ArrayContainer) other;
+
+                for (int i = 0; i < a.cardinality; i++) {
+                    result.add(a.values[i]);
+                }
+
+                return result;
+            }
+
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+
+            result.cardinality = count;
+            return result;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    consumer.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int count = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.PrintStream;
 import java.util.Scanner;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * CustomerMenu.java
@@ -30,21 +31,37 @@ import java.util.*;
 public class CustomerMenu {
     private Customer customer;
     private Marketplace marketplace;
+    private PrintStream out;
+    private MarketplaceListing listing = new MarketplaceListing(PAGE_SIZE);
+    private CompletableFuture<Integer> backgroundExport;
+    private String backgroundExportFile;
+
+    public static final int PAGE_SIZE = 20;
 
     public static final String CUSTOMER_MENU_TEXT = "1 - View Marketplace\n2 - Shopping Cart\n" +
                                                     "3 - View Purchase History\n" +
                                                     "4 - View Dashboard\nOther Options\n5 - Logout\n6 - Exit";
     public static final String MARKETPLACE_MENU_TEXT = "1 - Unsorted\n2 - By Price\n" +
                                                        "3 - By Quantity\n4 - Search Marketplace\n" +
-                                                       "Other Options\n5 - Back";
+                                                       "5 - Filter\nOther Options\n6 - Back";
 
     /**
      * @param customer    - Currently logged in customer
      * @param marketplace - Contains all of the data on Users, Stores, and Products
      */
     public CustomerMenu(Customer customer, Marketplace marketplace) {
+        this(customer, marketplace, System.out);
+    }
+
+    /**
+     * @param customer    - Currently logged in customer
+     * @param marketplace - Contains all of the data on Users, Stores, and Products
+     * @param out         - where this menu prints, such as a MarketServer session
+     */
+    public CustomerMenu(Customer customer, Marketplace marketplace, PrintStream out) {
         this.customer = customer;
         this.marketplace = marketplace;
+        this.out = out;
     }
 
     /**
@@ -60,8 +77,10 @@ public class CustomerMenu {
      */
     public boolean goToCustomerMenu(Scanner scan) {
         while (true) {
-            System.out.println("----------");
-            System.out.println("CUSTOMER MENU");
+            reportBackgroundExport();
+
+            out.println("----------");
+            out.println("CUSTOMER MENU");
 
             int input = MenuHelper.getInput(scan, CUSTOMER_MENU_TEXT, 6);
 
@@ -95,15 +114,16 @@ public class CustomerMenu {
      * 2 - By Price
      * 3 - By Quantity
      * 4 - Search By...
+     * 5 - Filter
      * 
      * @param scan
      */
     public void marketplaceOptions(Scanner scan) {
         while (true) {
-            System.out.println("----------");
-            System.out.println("MARKETPLACE OPTIONS");
+            out.println("----------");
+            out.println("MARKETPLACE OPTIONS");
 
-            int input = MenuHelper.getInput(scan, MARKETPLACE_MENU_TEXT, 5);
+            int input = MenuHelper.getInput(scan, MARKETPLACE_MENU_TEXT, 6);
 
             switch(input) {
                 case 1:
@@ -119,6 +139,9 @@ public class CustomerMenu {
                     searchMarketplace(scan);
                     break;
                 case 5:
+                    filterMarketplace(scan);
+                    break;
+                case 6:
                     return;
             }
         }
@@ -131,28 +154,28 @@ public class CustomerMenu {
      * @param scan
      */
     private void viewPurchaseHistory(Scanner scan) {
-        System.out.println("----------");
-        System.out.println("PURCHASE HISTORY");
+        out.println("----------");
+        out.println("PURCHASE HISTORY");
 
         ArrayList<Product> pastPurchases = customer.getPastPurchases();
         ArrayList<Integer> pastPurchaseQuantities = customer.getPastPurchaseQuantities();
 
         if (pastPurchases.size() != 0) {
-            System.out.println("Your most recent purchases are at the top of the list.");
+            out.println("Your most recent purchases are at the top of the list.");
             for (int i = pastPurchases.size() - 1; i >= 0; i--) {
                 Product product = pastPurchases.get(i);
                 int quantity = pastPurchaseQuantities.get(i);
                 double price = product.getPrice() * quantity;
 
-                System.out.printf(" - $%.2f [%d] %s | $%.2f each | Purchased from: %s\n",
+                out.printf(" - $%.2f [%d] %s | $%.2f each | Purchased from: %s\n",
                                   price, quantity, product.getProdName(), product.getPrice(),
                                   product.getWhichStore());
             }
         } else {
-            System.out.println("You have not made any purchases.");
+            out.println("You have not made any purchases.");
         }
 
-        System.out.println("*****");
+        out.println("*****");
         int input = MenuHelper.getInput(scan, "1 - Export Purchase history to a CSV file\n2 - Back", 2);
         switch (input){
             case 1:
@@ -170,91 +193,79 @@ public class CustomerMenu {
     /**
      * SORTS MARKETPLACE
      * 
-     * This method is a bit confusing visually because it can sort by two things two different
-     * ways. Here, the order in which the products are listed to the user can be sorted based on
-     * quantity or price, from low to high or high to low. In all cases, it is accomplished via an
-     * insertion sort into a new, separate ArrayList which is then handed off to the method that
-     * actually displays the marketplace to the user.
+     * Here, the order in which the products are listed to the user can be based on quantity or
+     * price, from low to high or high to low. The marketplace keeps its products ordered by both
+     * price and quantity as they change, so no sorting takes place here; the products are simply
+     * read out of the correct index in the chosen direction (or out of the query cache, if nothing
+     * has changed since the last time someone asked for this order) and handed off to the method
+     * that actually displays the marketplace to the user.
      * 
      * @param scan
      * @param byPrice
      */
     private void viewByX(Scanner scan, boolean byPrice) {
-        ArrayList<Product> allProducts = marketplace.getAllProducts();
-        ArrayList<Product> marketList = new ArrayList<>();
+        MarketplaceServices services = MarketplaceServices.of(marketplace);
 
         int input = MenuHelper.getInput(scan, "1 - Low to High\n2 - High to Low", 2);
         boolean lowToHigh = (input == 1 ? true : false);
-        
-        marketList.add(allProducts.get(0));
-
-        if (byPrice) {
-            for (int i = 1; i < allProducts.size(); i++) {
-                Product product = allProducts.get(i);
-
-                for (int j = 0; j < i; j++) {
-                    if ((product.getPrice() > marketList.get(j).getPrice()) ^ lowToHigh) {
-                        marketList.add(j, product);
-                        break;
-                    } else if (j == i - 1) {
-                        marketList.add(product);
-                    }
-                }
-            }
-        } else {
-            for (int i = 1; i < allProducts.size(); i++) {
-                Product product = allProducts.get(i);
-
-                for (int j = 0; j < i; j++) {
-                    if ((product.getStockRemaining() > marketList.get(j).getStockRemaining()) ^ lowToHigh) {
-                        marketList.add(j, product);
-                        break;
-                    } else if (j == i - 1) {
-                        marketList.add(product);
-                    }
-                }
-            }
-        }
+
+        long start = System.nanoTime();
+        List<Product> marketList = services.sortedView(byPrice, lowToHigh);
+        Metrics.SORTED_VIEW.recordSince(start);
 
         viewMarketplace(scan, marketList);
     }
 
     /**
-     * Marketplace search function here
+     * Marketplace search function here. The search is answered by the marketplace's SearchIndex
+     * rather than by checking every product, and popular searches are answered from the query
+     * cache. When nothing matches, the best selling product and store names that start the same
+     * way as the search are offered instead, so a misspelled search doesn't have to be retyped.
      * 
      * @param scan
      */
     private void searchMarketplace(Scanner scan) {
-        ArrayList<Product> allProducts = marketplace.getAllProducts();
+        MarketplaceServices services = MarketplaceServices.of(marketplace);
+        String suggested = null;
 
         while (true) {
-            ArrayList<Product> marketList = new ArrayList<>();
+            String search = suggested;
 
-            System.out.println("Searches will be referenced against clothing items' names, descriptions,\n" +
-                               "materials, colors, and the store they are listed in.");
-            System.out.print("Enter your search: ");
-            String search = scan.nextLine();
+            if (search == null) {
+                out.println("Searches will be referenced against clothing items' names, descriptions,\n" +
+                                   "materials, colors, and the store they are listed in.");
+                out.print("Enter your search: ");
+                search = scan.nextLine();
+            }
+            suggested = null;
 
-            for (Product p : allProducts) {
-                if (p.getProdName().toLowerCase().contains(search.toLowerCase().trim()) ||
-                    p.getDescription().toLowerCase().contains(search.toLowerCase().trim()) ||
-                    p.getWhichStore().toLowerCase().contains(search.toLowerCase().trim()) ||
-                    p.getMaterial().toLowerCase().contains(search.toLowerCase().trim()) ||
-                    p.getColour().toLowerCase().contains(search.toLowerCase().trim())) {
+            long start = System.nanoTime();
+            List<Product> marketList = services.search(search);
+            Metrics.SEARCH.recordSince(start);
+
+            if (marketList.size() == 0) {
+                out.println("Your search returned no results.");
 
-                    marketList.add(p);
+                List<String> suggestions = suggestionsFor(services, search);
+                StringBuilder menu = new StringBuilder("1 - Try a Different Search\n2 - Back");
+
+                if (!suggestions.isEmpty()) {
+                    menu.append("\nDid you mean:");
+                }
+                for (int i = 0; i < suggestions.size(); i++) {
+                    menu.append(String.format("\n%d - %s", i + 3, suggestions.get(i)));
                 }
-            }
 
-            if (marketList.size() == 0) {
-                System.out.println("Your search returned no results.");
-                int input = MenuHelper.getInput(scan, "1 - Try a Different Search\n2 - Back", 2);
+                int input = MenuHelper.getInput(scan, menu.toString(), suggestions.size() + 2);
 
                 switch (input) {
                     case 1:
                         continue;
                     case 2:
                         return;
+                    default:
+                        suggested = suggestions.get(input - 3);
+                        continue;
                 }
             }
 
@@ -263,43 +274,206 @@ public class CustomerMenu {
         }
     }
 
-    // SELECTING PRODUCTS AND BUYING THEM OR ADDING THEM TO CART
+    /**
+     * Finds names to suggest for a search that matched nothing. Misspellings are usually towards
+     * the end, so the search is shortened until some name starts with what is left.
+     * 
+     * @param services - services of the marketplace being searched
+     * @param search   - search that matched nothing
+     * @return         - names to suggest, best selling first
+     */
+    private List<String> suggestionsFor(MarketplaceServices services, String search) {
+        String prefix = search.trim();
+        List<String> suggestions = new ArrayList<>();
+
+        long start = System.nanoTime();
+        while (!prefix.isEmpty() && suggestions.isEmpty()) {
+            suggestions = services.suggest(prefix);
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        Metrics.AUTOCOMPLETE.recordSince(start);
+
+        return suggestions;
+    }
 
     /**
-     * This method displays the marketplace to the user, listing all of the products on it.
-     * It shows the name of a product, its price, and the store selling it. To see more details or
-     * immediately buy a product/add a product to cart, the user must enter a number corresponding
-     * to the product.
+     * Lets the customer narrow down the marketplace by store, material, colour, and price band.
+     * Any number of values can be chosen in each, and the number of products matching the
+     * current choices is shown as they are made. The matching products are worked out by the
+     * marketplace's FacetIndex.
      * 
      * @param scan
-     * @param marketProducts - ArrayList of products on the market, already in the order in which
-     *                         they will be displayed
      */
-    private void viewMarketplace(Scanner scan, ArrayList<Product> marketProducts) {
-        String menuText = "";
+    private void filterMarketplace(Scanner scan) {
+        MarketplaceServices services = MarketplaceServices.of(marketplace);
+        services.checkIndexes();
 
-        int i;
-        
-        for (i = 1; i < marketProducts.size() + 1; i++) {
-            Product product = marketProducts.get(i - 1);
+        FacetIndex facetIndex = services.getFacetIndex();
+        FacetIndex.Filter filter = new FacetIndex.Filter();
 
-            menuText += String.format("%d - %s | $%.2f | Offered by: %s\n",
-                                      i, product.getProdName(), product.getPrice(), product.getWhichStore());
-        }
+        while (true) {
+            out.println("----------");
+            out.println("FILTER MARKETPLACE");
+
+            long start = System.nanoTime();
+            int matching = facetIndex.match(filter).cardinality();
+            Metrics.FILTER.recordSince(start);
+
+            out.printf("Products matching: %d\n", matching);
 
-        menuText += i + " - Back";
+            StringBuilder menu = new StringBuilder();
 
+            for (int facet = 0; facet < FacetIndex.FACET_COUNT; facet++) {
+                menu.append(String.format("%d - %s: %s\n", facet + 1, FacetIndex.FACET_NAMES[facet],
+                                          chosenValues(facetIndex, filter, facet)));
+            }
+            menu.append(String.format("%d - Clear Filters\n%d - View Results\n%d - Back",
+                                      FacetIndex.FACET_COUNT + 1, FacetIndex.FACET_COUNT + 2,
+                                      FacetIndex.FACET_COUNT + 3));
+
+            int input = MenuHelper.getInput(scan, menu.toString(), FacetIndex.FACET_COUNT + 3);
+
+            if (input <= FacetIndex.FACET_COUNT) {
+                chooseFacetValues(scan, facetIndex, filter, input - 1);
+            } else if (input == FacetIndex.FACET_COUNT + 1) {
+                filter.clear();
+            } else if (input == FacetIndex.FACET_COUNT + 2) {
+                viewMarketplace(scan, facetIndex.products(filter));
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lists every value of a facet that would leave at least one product (or that is already
+     * chosen), along with how many products it would leave. Choosing a value adds it to the
+     * filter, or removes it if it was already chosen.
+     * 
+     * @param scan
+     * @param facetIndex - marketplace's FacetIndex
+     * @param filter     - values chosen so far
+     * @param facet      - facet whose values are being chosen
+     */
+    private void chooseFacetValues(Scanner scan, FacetIndex facetIndex, FacetIndex.Filter filter, int facet) {
         while (true) {
-            System.out.println("----------");
-            System.out.println("MARKETPLACE");
+            out.println("----------");
+            out.printf("CHOOSE %s\n", FacetIndex.FACET_NAMES[facet].toUpperCase());
+            out.println("Choose a value to add it to or remove it from the filter.");
+
+            int[] counts = facetIndex.counts(filter, facet);
+            ArrayList<Integer> values = new ArrayList<>();
+            StringBuilder menu = new StringBuilder();
+
+            for (int value = 0; value < counts.length; value++) {
+                if (counts[value] > 0 || filter.isChosen(facet, value)) {
+                    values.add(value);
+                    menu.append(String.format("%d - %s (%d)%s\n", values.size(), facetIndex.valueName(facet, value),
+                                              counts[value], (filter.isChosen(facet, value) ? " - Chosen" : "")));
+                }
+            }
+            menu.append(String.format("%d - Done", values.size() + 1));
 
-            int input = MenuHelper.getInput(scan, menuText, i);
+            int input = MenuHelper.getInput(scan, menu.toString(), values.size() + 1);
 
-            if (input < i) {
-                productPage(scan, marketProducts.get(input - 1));
-            } else if (input == i) {
+            if (input == values.size() + 1) {
                 return;
             }
+
+            filter.toggle(facet, values.get(input - 1));
+        }
+    }
+
+    /**
+     * @return - the values chosen in a facet, separated by commas, or "Any"
+     */
+    private static String chosenValues(FacetIndex facetIndex, FacetIndex.Filter filter, int facet) {
+        if (filter.isEmpty(facet)) {
+            return "Any";
+        }
+
+        StringBuilder chosen = new StringBuilder();
+
+        for (int value = 0; value < facetIndex.valueCount(facet); value++) {
+            if (filter.isChosen(facet, value)) {
+                chosen.append(chosen.length() == 0 ? "" : ", ").append(facetIndex.valueName(facet, value));
+            }
+        }
+
+        return chosen.toString();
+    }
+
+    // SELECTING PRODUCTS AND BUYING THEM OR ADDING THEM TO CART
+
+    /**
+     * This method displays the marketplace to the user, listing the products on it one page at a
+     * time. It shows the name of a product, its price, and the store selling it. To see more
+     * details or immediately buy a product/add a product to cart, the user must enter a number
+     * corresponding to the product. The user can also move to the next or previous page, or jump
+     * straight to a particular page.
+     * 
+     * @param scan
+     * @param marketProducts - List of products on the market, already in the order in which
+     *                         they will be displayed
+     */
+    private void viewMarketplace(Scanner scan, List<Product> marketProducts) {
+        listing.setProducts(marketProducts);
+
+        while (true) {
+            out.println("----------");
+            out.println("MARKETPLACE");
+            out.printf("Page %d of %d\n", listing.getPageNumber(), listing.getPageCount());
+
+            String menuText = listing.render();
+            int shown = listing.getPageItemCount();
+
+            int input = MenuHelper.getInput(scan, menuText, shown + MarketplaceListing.NAVIGATION_OPTIONS);
+
+            if (input <= shown) {
+                productPage(scan, listing.getItem(input));
+                continue;
+            }
+
+            switch (input - shown) {
+                case 1:
+                    if (!listing.nextPage()) {
+                        out.println("You are already on the last page.");
+                    }
+                    break;
+                case 2:
+                    if (!listing.previousPage()) {
+                        out.println("You are already on the first page.");
+                    }
+                    break;
+                case 3:
+                    jumpToPage(scan);
+                    break;
+                case 4:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Asks the user which page of the marketplace listing they would like to go to.
+     * 
+     * @param scan
+     */
+    private void jumpToPage(Scanner scan) {
+        while (true) {
+            out.printf("Enter a page number from 1 to %d: ", listing.getPageCount());
+            String pageStr = scan.nextLine();
+
+            try {
+                if (listing.jumpToPage(Integer.parseInt(pageStr.trim()))) {
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                out.println("You must enter a number!");
+                continue;
+            }
+
+            out.println("That page does not exist.");
         }
     }
 
@@ -313,14 +487,14 @@ public class CustomerMenu {
      */
     private void productPage(Scanner scan, Product product) {
         while (true) {
-            System.out.println("----------");
-            System.out.println("LISTING");
+            out.println("----------");
+            out.println("LISTING");
 
-            System.out.println("Store: " + product.getWhichStore());
-            System.out.println("Clothing Item Name: " + product.getProdName());
-            System.out.println("Description: " + product.getDescription());
-            System.out.printf("Price: $%.2f\n", product.getPrice());
-            System.out.println("Quantity Remaining: " + product.getStockRemaining());
+            out.println("Store: " + product.getWhichStore());
+            out.println("Clothing Item Name: " + product.getProdName());
+            out.println("Description: " + product.getDescription());
+            out.printf("Price: $%.2f\n", product.getPrice());
+            out.println("Quantity Remaining: " + product.getStockRemaining());
 
             int input = MenuHelper.getInput(scan, "1 - Buy Now\n2 - Add to Shopping Cart\n3 - Add Review\n" +
                                             "4 - View Reviews\n5 - Back", 5);
@@ -355,8 +529,10 @@ public class CustomerMenu {
 
     /**
      * Here, the user enters the quantity they would like to purchase or add to cart. They cannot
-     * buy more than are on the market if they are buying immediately. Of course, this method
-     * behaves differenty based on whether or not buyNow is true.
+     * buy more than are on the market if they are buying immediately. Checking and taking the
+     * stock is done as a single reservation, so two customers buying at once cannot both get the
+     * last of a product. Of course, this method behaves differenty based on whether or not buyNow
+     * is true.
      * 
      * @param scan
      * @param product - Product being bought or added to cart
@@ -364,11 +540,11 @@ public class CustomerMenu {
      */
     private void buyNowOrAddToCart(Scanner scan, Product product, boolean buyNow) {
         while (true) {
-            System.out.println("Enter 'X' to cancel.");
+            out.println("Enter 'X' to cancel.");
             if (buyNow) {
-                System.out.println("How many would you like to purchase?: ");
+                out.println("How many would you like to purchase?: ");
             } else {
-                System.out.println("How many would you like to add to your shopping cart?");
+                out.println("How many would you like to add to your shopping cart?");
             }
 
             String numStr = scan.nextLine();
@@ -382,30 +558,46 @@ public class CustomerMenu {
             try {
                 num = Integer.parseInt(numStr);
             } catch (NumberFormatException e) {
-                System.out.println("You must enter a number!");
+                out.println("You must enter a number!");
                 continue;
             }
 
             if (num <= 0) {
-                System.out.println("You must enter a number greater than 0.");
+                out.println("You must enter a number greater than 0.");
                 continue;
             }
 
-            int stockRemaining = product.getStockRemaining();
+            MarketplaceServices services = MarketplaceServices.of(marketplace);
+            StockReservations reservations = services.getStockReservations();
+
+            long start = System.nanoTime();
+
+            // Bought straight away, with nothing held in between that would need to time out. The
+            // histories are added to under the product's lock and then the customer's, since
+            // neither Product nor Customer synchronizes them
+            if (buyNow && !reservations.buy(product, num, () -> {
+                product.addToPurchaseHistory(num, customer.getEmail());
 
-            if (buyNow && num > stockRemaining) {
-                System.out.printf("There are only %d remaining.\n", stockRemaining);
+                synchronized (services.customerLock(customer)) {
+                    customer.addPurchasedProduct(product, num);
+                }
+            })) {
+                out.printf("There are only %d remaining.\n", reservations.getAvailable(product));
             } else if (buyNow) {
-                product.buyAmount(num);
-                System.out.printf("You purchased %d of the item %s.\n",
+                services.purchaseRecorded(customer, product, num);
+
+                Metrics.PURCHASE.recordSince(start);
+
+                out.printf("You purchased %d of the item %s.\n",
                                  num, product.getProdName());
-                product.addToPurchaseHistory(num, customer.getEmail());
-                customer.addPurchasedProduct(product, num);
                 break;
             } else {
-                System.out.printf("You added %d of the item %s to your cart.\n",
+                out.printf("You added %d of the item %s to your cart.\n",
                                   num, product.getProdName());
-                customer.addShoppingCartProduct(product, num);
+
+                synchronized (services.customerLock(customer)) {
+                    customer.addShoppingCartProduct(product, num);
+                }
                 break;
             }
         }
@@ -413,19 +605,21 @@ public class CustomerMenu {
 
     /**
      * Here, the user enters the filename they want to export to.
-     * They must export to a csv and cannot export to a protected file 
-     * protected files are files used for data persistence by the program
+     * They must export to a csv (optionally gzip-compressed, ending in .csv.gz) and cannot export
+     * to a protected file. protected files are files used for data persistence by the program.
+     * The export can either be done right away or in the background, so that the customer can
+     * keep using the menu while a long history is written.
      * 
      * @param scan
      * @param customer1 - Customer that wants to export to a CSV
      */
     public void exportPurchasesToCSV(Scanner scan, Customer customer1) {
-        System.out.println("----------");
-        System.out.println("EXPORT TO CSV");
-        System.out.println("Enter a file name you would like to export to");
+        out.println("----------");
+        out.println("EXPORT TO CSV");
+        out.println("Enter a file name you would like to export to");
         while (true) {
-            System.out.println("'X' can be entered to go back to the previous menu.");
-            System.out.print("Enter the name of the file to export the products to: ");
+            out.println("'X' can be entered to go back to the previous menu.");
+            out.print("Enter the name of the file to export the products to: ");
 
             String fileName = scan.nextLine();
 
@@ -434,8 +628,8 @@ public class CustomerMenu {
             }
 
             // Necessary for protecting .java files
-            if (!(fileName.substring(fileName.length() - 4)).equals(".csv")) {
-                System.out.println("Ensure that you are exporting to a file with the extension '.csv'");
+            if (!fileName.endsWith(".csv") && !fileName.endsWith(".csv.gz")) {
+                out.println("Ensure that you are exporting to a file with the extension '.csv' or '.csv.gz'");
                 continue;
             }
 
@@ -447,7 +641,7 @@ public class CustomerMenu {
 
             for (String s : protectedFiles) {
                 if (fileName.equals(s)) {
-                    System.out.printf("%s is also the name of an internal file. Thus, it cannot be exported to.\n",
+                    out.printf("%s is also the name of an internal file. Thus, it cannot be exported to.\n",
                             fileName);
                     illegalFileName = true;
                     break;
@@ -457,20 +651,53 @@ public class CustomerMenu {
             if (illegalFileName) {
                 continue;
             }
-            try (PrintWriter pw = new PrintWriter(new FileWriter(new File(fileName), false))) {
-                pw.println("Quantity, Price, Total Spend, Product name, Store");
-                for (Product product : customer1.getPastPurchases()) {
-                    int index = customer1.getPastPurchases().indexOf(product);
-                    int quantity = customer1.getPastPurchaseQuantities().get(index);
-                    pw.printf("%d,$%.2f, $%.2f, %s,%s\n", quantity, product.getPrice(),
-                              quantity * product.getPrice(), product.getProdName(), product.getWhichStore());
+
+            int input = MenuHelper.getInput(scan, "1 - Export Now\n2 - Export in the Background", 2);
+
+            if (input == 2) {
+                reportBackgroundExport();
+
+                if (backgroundExport != null) {
+                    out.println("Your last export is still running. Please wait for it to finish.");
+                    break;
                 }
+
+                backgroundExport = PurchaseExporter.exportInBackground(customer1, new File(fileName));
+                backgroundExportFile = fileName;
+                out.printf("Your purchase history is being exported to %s in the background.\n", fileName);
+                out.println("You will be told when it is done.");
+                break;
+            }
+
+            try {
+                PurchaseExporter.export(customer1, new File(fileName));
                 
-                System.out.println("Purchase history exported succesfully");
+                out.println("Purchase history exported succesfully");
                 break;
             } catch (IOException e) {
-                System.out.println("Enter a valid file name!");
+                out.println("Enter a valid file name!");
             }
         }
     }
+
+    /**
+     * Tells the customer how their background export went, once it has finished. This is done
+     * from the menu rather than from the thread doing the export, so that the message reaches
+     * the customer's own session.
+     */
+    private void reportBackgroundExport() {
+        if (backgroundExport == null || !backgroundExport.isDone()) {
+            return;
+        }
+
+        try {
+            int count = backgroundExport.join();
+            out.printf("Your purchase history (%d purchases) was exported to %s.\n", count, backgroundExportFile);
+        } catch (CompletionException e) {
+            out.printf("Error! Issue while exporting purchase history to %s.\n", backgroundExportFile);
+        }
+
+        backgroundExport = null;
+        backgroundExportFile = null;
+    }
 }
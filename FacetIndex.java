@@ -0,0 +1,268 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * FacetIndex.java
+ *
+ * Lets shoppers narrow down the marketplace by store, material, colour, and price band, in any
+ * combination (for example, cotton or linen, blue, under $30). For every value of every facet the
+ * index keeps a CompressedBitmap of the catalog ids of the products with that value. A filter is
+ * answered by ORing the bitmaps of the values chosen within each facet and ANDing the facets
+ * together, so no product is looked at until the matching ones are listed.
+ *
+ * The index can also count, for every value of a facet, how many products would match if that
+ * value were chosen along with the filters already chosen in the other facets, so the menu can
+ * show shoppers how many products each choice leads to.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-21-2022
+ *
+ */
+
+public class FacetIndex {
+    public static final int STORE = 0;
+    public static final int MATERIAL = 1;
+    public static final int COLOUR = 2;
+    public static final int PRICE = 3;
+    public static final int FACET_COUNT = 4;
+
+    public static final String[] FACET_NAMES = { "Store", "Material", "Colour", "Price" };
+
+    // A product is in the first band whose upper bound is above its price
+    private static final double[] PRICE_BOUNDS = { 10, 30, 50, 100 };
+    private static final String[] PRICE_BANDS = { "Under $10", "$10 - $30", "$30 - $50", "$50 - $100",
+                                                  "$100 and up" };
+
+    private static final int NONE = -1;
+
+    private final ProductCatalog catalog;
+    private final AttributeDictionary[] dictionaries;
+    private final ArrayList<ArrayList<CompressedBitmap>> bitmaps = new ArrayList<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+
+    // The value each product was indexed under, by catalog id, so it can be removed later
+    private int[][] indexedValues = new int[FACET_COUNT][64];
+
+    /**
+     * @param catalog - catalog that gives out the product ids and attribute codes
+     */
+    public FacetIndex(ProductCatalog catalog) {
+        this.catalog = catalog;
+        this.dictionaries = new AttributeDictionary[] { catalog.getStores(), catalog.getMaterials(),
+                                                        catalog.getColours(), null };
+
+        for (int facet = 0; facet < FACET_COUNT; facet++) {
+            bitmaps.add(new ArrayList<>());
+            Arrays.fill(indexedValues[facet], NONE);
+        }
+    }
+
+    /**
+     * Adds a product. It must already be in the catalog.
+     *
+     * @param product - product being added
+     */
+    public synchronized void add(Product product) {
+        int id = catalog.idOf(product);
+
+        if (id == ProductCatalog.NOT_FOUND) {
+            return;
+        }
+
+        if (id >= indexedValues[0].length) {
+            for (int facet = 0; facet < FACET_COUNT; facet++) {
+                int oldLength = indexedValues[facet].length;
+
+                indexedValues[facet] = Arrays.copyOf(indexedValues[facet], Math.max(id + 1, oldLength * 2));
+                Arrays.fill(indexedValues[facet], oldLength, indexedValues[facet].length, NONE);
+            }
+        }
+
+        int[] values = { catalog.getStoreCode(id), catalog.getMaterialCode(id), catalog.getColourCode(id),
+                         priceBand(product.getPrice()) };
+
+        for (int facet = 0; facet < FACET_COUNT; facet++) {
+            bitmap(facet, values[facet]).add(id);
+            indexedValues[facet][id] = values[facet];
+        }
+
+        all.add(id);
+    }
+
+    /**
+     * Re-indexes a product after a seller has edited it. The catalog must already have been
+     * updated.
+     *
+     * @param product - product that was edited
+     */
+    public synchronized void update(Product product) {
+        remove(product);
+        add(product);
+    }
+
+    /**
+     * @param product - product being removed
+     */
+    public synchronized void remove(Product product) {
+        int id = catalog.idOf(product);
+
+        if (id == ProductCatalog.NOT_FOUND || id >= indexedValues[0].length || indexedValues[0][id] == NONE) {
+            return;
+        }
+
+        for (int facet = 0; facet < FACET_COUNT; facet++) {
+            bitmaps.get(facet).get(indexedValues[facet][id]).remove(id);
+            indexedValues[facet][id] = NONE;
+        }
+
+        all.remove(id);
+    }
+
+    /**
+     * @param filter - values chosen in each facet
+     * @return       - catalog ids of the products matching the filter
+     */
+    public synchronized CompressedBitmap match(Filter filter) {
+        return match(filter, NONE);
+    }
+
+    /**
+     * @param filter - values chosen in each facet
+     * @return       - the products matching the filter, in the order they were listed
+     */
+    public ArrayList<Product> products(Filter filter) {
+        ArrayList<Product> products = new ArrayList<>();
+
+        match(filter).forEach(id -> products.add(catalog.get(id)));
+        return products;
+    }
+
+    /**
+     * Counts how many products each value of a facet would lead to, given the values chosen in
+     * every other facet.
+     *
+     * @param filter - values chosen in each facet
+     * @param facet  - facet whose values are counted
+     * @return       - count for every value of the facet, by value
+     */
+    public synchronized int[] counts(Filter filter, int facet) {
+        CompressedBitmap others = match(filter, facet);
+        ArrayList<CompressedBitmap> values = bitmaps.get(facet);
+        int[] counts = new int[valueCount(facet)];
+
+        for (int value = 0; value < values.size(); value++) {
+            counts[value] = others.andCardinality(values.get(value));
+        }
+
+        return counts;
+    }
+
+    /**
+     * @param facet - one of the facets
+     * @return      - number of values the facet has
+     */
+    public int valueCount(int facet) {
+        return (facet == PRICE ? PRICE_BANDS.length : dictionaries[facet].size());
+    }
+
+    /**
+     * @param facet - one of the facets
+     * @param value - one of the facet's values
+     * @return      - the value as it should be shown to shoppers
+     */
+    public String valueName(int facet, int value) {
+        return (facet == PRICE ? PRICE_BANDS[value] : dictionaries[facet].decode(value));
+    }
+
+    /**
+     * @param filter        - values chosen in each facet
+     * @param excludedFacet - facet whose choices are ignored, or NONE
+     */
+    private CompressedBitmap match(Filter filter, int excludedFacet) {
+        CompressedBitmap result = all;
+
+        for (int facet = 0; facet < FACET_COUNT; facet++) {
+            BitSet chosen = filter.chosen[facet];
+
+            if (facet == excludedFacet || chosen.isEmpty()) {
+                continue;
+            }
+
+            CompressedBitmap either = new CompressedBitmap();
+            ArrayList<CompressedBitmap> values = bitmaps.get(facet);
+
+            for (int value = chosen.nextSetBit(0); value >= 0 && value < values.size();
+                 value = chosen.nextSetBit(value + 1)) {
+                either = either.or(values.get(value));
+            }
+
+            result = result.and(either);
+        }
+
+        return (result == all ? all.copy() : result);
+    }
+
+    private CompressedBitmap bitmap(int facet, int value) {
+        ArrayList<CompressedBitmap> values = bitmaps.get(facet);
+
+        while (values.size() <= value) {
+            values.add(new CompressedBitmap());
+        }
+
+        return values.get(value);
+    }
+
+    private static int priceBand(double price) {
+        int band = 0;
+
+        while (band < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[band]) {
+            band++;
+        }
+
+        return band;
+    }
+
+    /**
+     * The values a shopper has chosen in each facet. A product matches if, in every facet where
+     * something has been chosen, it has one of the chosen values.
+     */
+    public static class Filter {
+        private final BitSet[] chosen = new BitSet[FACET_COUNT];
+
+        public Filter() {
+            for (int facet = 0; facet < FACET_COUNT; facet++) {
+                chosen[facet] = new BitSet();
+            }
+        }
+
+        /**
+         * Chooses a value, or un-chooses it if it was already chosen.
+         *
+         * @param facet - one of the facets
+         * @param value - one of the facet's values
+         */
+        public void toggle(int facet, int value) {
+            chosen[facet].flip(value);
+        }
+
+        public boolean isChosen(int facet, int value) {
+            return chosen[facet].get(value);
+        }
+
+        public boolean isEmpty(int facet) {
+            return chosen[facet].isEmpty();
+        }
+
+        public void clear() {
+            for (BitSet values : chosen) {
+                values.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram.java
+ *
+ * Counts how long an operation takes, cheaply enough to be left on all the time. Times are
+ * sorted into buckets rather than kept, so recording a time never allocates memory: it is just a
+ * few atomic additions. Each power of two nanoseconds is split into SUB_BUCKETS buckets, so a
+ * percentile read from the histogram is accurate to within about 25%, which is plenty to tell a
+ * 50 microsecond lookup from a 5 millisecond one.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-13-2022
+ *
+ */
+
+public class LatencyHistogram implements LatencyHistogramMBean {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param name - name of the operation being timed
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the time since start, which should have come from System.nanoTime().
+     *
+     * @param start - when the operation started
+     */
+    public void recordSince(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * @param nanos - how long the operation took
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+
+        long max = maxNanos.get();
+
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return (n == 0 ? 0 : totalNanos.sum() / (double) n / 1000);
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileNanos(0.5) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileNanos(0.99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return percentileNanos(0.999) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * @param p - percentile, from 0 to 1
+     * @return  - upper bound of the bucket the percentile falls in, in nanoseconds
+     */
+    public long percentileNanos(double p) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(p * total);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+
+        return maxNanos.get();
+    }
+
+    /**
+     * Bucket index is the position of the highest set bit, followed by the next SUB_BUCKET_BITS
+     * bits below it. Values smaller than SUB_BUCKETS get a bucket each.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+
+        int highBit = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (highBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (highBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int highBit = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+
+        if (highBit >= 62) {
+            return Long.MAX_VALUE;
+        }
+
+        return ((SUB_BUCKETS + sub + 1) << (highBit - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * LatencyHistogramMBean.java
+ *
+ * What a LatencyHistogram shows through JMX (for example, in JConsole or VisualVM). All times
+ * are in microseconds.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-13-2022
+ *
+ */
+
+public interface LatencyHistogramMBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,534 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * LoadGenerator.java
+ *
+ * Simulates many customers using the marketplace at the same time, to find out how it holds up
+ * before a busy sale rather than during one. Since the menus only ever read lines from a Scanner,
+ * a customer's session is just a script of input lines. This class writes realistic scripts
+ * (create an account, browse, sort, search, add to cart, buy, view a seller dashboard, exit) and
+ * runs many of them at once against a Marketplace in the same program, through the same menus
+ * the MarketServer uses.
+ *
+ * Each script is made up of operations, such as "search", that take several lines of input. The
+ * time an operation takes is measured from when its first line is read until the menus ask for
+ * the line after its last one. The report lists, for each operation, how many completed, how
+ * many completed per second, and the 50th, 99th, and 99.9th percentile times.
+ *
+ * The scripts are written against the menus as they are numbered in CustomerMenu,
+ * MarketplaceListing, and SellerDashboard, so they must be kept in step with those classes. A
+ * session that falls out of step is stopped and counted in the report rather than left to type
+ * its lines into the wrong menus: before the first line of each operation is handed over, the
+ * menu the operation starts from must have been printed since the last line, and a session whose
+ * menus finish before its script does has fallen out of step too.
+ *
+ * Signing up and buying create real accounts and orders, so main() never runs against the
+ * marketplace's own files. It copies them into a new temporary directory and runs the load test
+ * there in a separate java process, which is then deleted along with the directory. Its
+ * arguments are the number of sessions, the number of operations per session, and the seed,
+ * which default to 100, 20, and 1. Seller dashboards aren't viewed by main(), since it has no
+ * stores to pick from.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-12-2022
+ *
+ */
+
+public class LoadGenerator {
+    public static final String SIGN_UP = "sign up";
+    public static final String BROWSE = "browse";
+    public static final String SORT = "sort";
+    public static final String SEARCH = "search";
+    public static final String ADD_TO_CART = "add to cart";
+    public static final String BUY = "buy";
+    public static final String DASHBOARD = "dashboard";
+    public static final String EXIT = "exit";
+
+    // Files the marketplace reads and writes, which main() copies into its scratch directory
+    public static final String[] DATA_FILES = { "product_file_output.csv", "purchased_products.csv",
+        "seller_products.csv", "shopping_cart_products.csv", "stores_list.csv", "user_list.csv",
+        "product_reviews.csv" };
+    // Set on the java process main() starts, which runs in the scratch directory
+    public static final String SCRATCH_PROPERTY = "loadgenerator.scratch";
+
+    // Option that leaves CustomerMenu.MARKETPLACE_MENU_TEXT
+    private static final String MARKETPLACE_BACK = "6";
+
+    // Printed by the menu each kind of operation starts from
+    private static final String LOGIN_HEADING = "LOGIN OR CREATE NEW ACCOUNT BELOW";
+    private static final String CUSTOMER_MENU_HEADING = "CUSTOMER MENU";
+
+    private static final String[] MISSES = { "zzz", "velvet tuxedo", "qwerty" };
+
+    private final Marketplace marketplace;
+    private final List<Store> stores;
+    private final Random random;
+    private final MarketServer sessions;
+    private final ConcurrentHashMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final AtomicInteger failedSessions = new AtomicInteger();
+
+    /**
+     * @param marketplace - marketplace the sessions are run against
+     * @param stores      - stores whose dashboards may be viewed (may be empty)
+     * @param seed        - seed for generating scripts, so that runs can be repeated
+     */
+    public LoadGenerator(Marketplace marketplace, List<Store> stores, long seed) {
+        this.marketplace = marketplace;
+        this.stores = stores;
+        this.random = new Random(seed);
+        this.sessions = new MarketServer(marketplace, 0);
+    }
+
+    /**
+     * Runs a load test against a copy of the marketplace's files. See the class comment for the
+     * arguments.
+     *
+     * @param args - number of sessions, operations per session, and seed, all optional
+     * @throws IOException          if the scratch directory could not be set up
+     * @throws InterruptedException if interrupted while waiting for the load test
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int sessionCount = (args.length > 0 ? Integer.parseInt(args[0]) : 100);
+        int actionsPerSession = (args.length > 1 ? Integer.parseInt(args[1]) : 20);
+        long seed = (args.length > 2 ? Long.parseLong(args[2]) : 1);
+
+        if (Boolean.getBoolean(SCRATCH_PROPERTY)) {
+            LoadGenerator generator = new LoadGenerator(new Marketplace(), new ArrayList<>(), seed);
+            System.out.print(generator.run(sessionCount, actionsPerSession));
+            return;
+        }
+
+        Path scratch = Files.createTempDirectory("market-load");
+
+        try {
+            for (String name : DATA_FILES) {
+                Path file = Paths.get(name);
+
+                if (Files.exists(file)) {
+                    Files.copy(file, scratch.resolve(name));
+                }
+            }
+
+            // The scratch directory becomes the working directory, so the class path can't be relative
+            StringBuilder classPath = new StringBuilder();
+
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                classPath.append(classPath.length() == 0 ? "" : File.pathSeparator)
+                         .append(new File(entry).getAbsolutePath());
+            }
+
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            Process process = new ProcessBuilder(java, "-D" + SCRATCH_PROPERTY + "=true", "-cp", classPath.toString(),
+                                                 LoadGenerator.class.getName(), Integer.toString(sessionCount),
+                                                 Integer.toString(actionsPerSession), Long.toString(seed))
+                .directory(scratch.toFile())
+                .inheritIO()
+                .start();
+
+            if (process.waitFor() != 0) {
+                System.out.println("Error! Issue while running the load test.");
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(scratch)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Runs the given number of sessions at once and reports how long each operation took.
+     *
+     * @param sessionCount      - number of simultaneous sessions
+     * @param actionsPerSession - number of operations each session performs between signing up
+     *                            and exiting
+     * @return                  - the report
+     * @throws InterruptedException if interrupted while waiting for the sessions to finish
+     */
+    public String run(int sessionCount, int actionsPerSession) throws InterruptedException {
+        SessionConsole.install();
+        recorders.clear();
+        failedSessions.set(0);
+
+        ArrayList<ArrayList<Step>> scripts = new ArrayList<>(sessionCount);
+
+        for (int i = 0; i < sessionCount; i++) {
+            scripts.add(generateScript(i, actionsPerSession));
+        }
+
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ArrayList<Step> script : scripts) {
+                executor.submit(() -> runSession(script));
+            }
+        }
+
+        return report(System.nanoTime() - start);
+    }
+
+    private void runSession(ArrayList<Step> script) {
+        SessionOutput output = new SessionOutput();
+        PrintStream out = new PrintStream(output, false, StandardCharsets.UTF_8);
+        ScriptInputStream in = new ScriptInputStream(script, output);
+
+        SessionConsole.bind(out);
+
+        try {
+            sessions.runMenus(new Scanner(in, StandardCharsets.UTF_8), out);
+
+            // The menus finished with lines left over, such as after a failed sign-up
+            if (!in.isFinished()) {
+                failedSessions.incrementAndGet();
+            }
+        } catch (NoSuchElementException e) {
+            // The script was stopped, or ran out, before the menus were done with it
+            failedSessions.incrementAndGet();
+        } finally {
+            SessionConsole.unbind();
+        }
+    }
+
+    // GENERATING SCRIPTS
+
+    /**
+     * @param session - number of the session, used to give each one its own account
+     * @param actions - number of operations between signing up and exiting
+     * @return        - the script
+     */
+    public ArrayList<Step> generateScript(int session, int actions) {
+        ArrayList<Step> script = new ArrayList<>();
+        ArrayList<Product> products = marketplace.getAllProducts();
+
+        Step signUp = new Step(SIGN_UP, "2", "load" + session + "-" + random.nextInt(1000000) + "@example.com",
+                               "password", "1");
+        signUp.expectedHeading = LOGIN_HEADING;
+        script.add(signUp);
+
+        for (int i = 0; i < actions; i++) {
+            int roll = random.nextInt(100);
+
+            if (products.isEmpty() || roll < 20) {
+                script.add(search());
+            } else if (roll < 45) {
+                script.add(browse(products.size()));
+            } else if (roll < 65) {
+                script.add(sort(products.size()));
+            } else if (roll < 80) {
+                script.add(pickProduct(ADD_TO_CART, "2", products));
+            } else if (roll < 92 || stores.isEmpty()) {
+                script.add(pickProduct(BUY, "1", products));
+            } else {
+                script.add(dashboard());
+            }
+        }
+
+        script.add(new Step(EXIT, "6"));
+        return script;
+    }
+
+    private Step browse(int productCount) {
+        int shown = Math.min(CustomerMenu.PAGE_SIZE, productCount);
+        int pages = (productCount + CustomerMenu.PAGE_SIZE - 1) / CustomerMenu.PAGE_SIZE;
+
+        ArrayList<String> lines = new ArrayList<>(Arrays.asList("1", "1"));
+
+        if (pages > 1) {
+            // Jump to a random page, which then shows a full page unless it is the last one
+            int page = 1 + random.nextInt(pages);
+            lines.add(Integer.toString(shown + 3));
+            lines.add(Integer.toString(page));
+            shown = Math.min(CustomerMenu.PAGE_SIZE, productCount - (page - 1) * CustomerMenu.PAGE_SIZE);
+        }
+
+        lines.add(Integer.toString(shown + MarketplaceListing.NAVIGATION_OPTIONS));
+        lines.add(MARKETPLACE_BACK);
+        return new Step(BROWSE, lines);
+    }
+
+    private Step sort(int productCount) {
+        int shown = Math.min(CustomerMenu.PAGE_SIZE, productCount);
+
+        return new Step(SORT, "1", (random.nextBoolean() ? "2" : "3"), (random.nextBoolean() ? "1" : "2"),
+                        Integer.toString(shown + MarketplaceListing.NAVIGATION_OPTIONS), MARKETPLACE_BACK);
+    }
+
+    private Step search() {
+        ArrayList<Product> products = marketplace.getAllProducts();
+        String query;
+
+        if (products.isEmpty() || random.nextInt(10) == 0) {
+            query = MISSES[random.nextInt(MISSES.length)];
+        } else {
+            String[] words = products.get(random.nextInt(products.size())).getProdName().split(" ");
+            query = words[random.nextInt(words.length)];
+        }
+
+        int results = MarketplaceServices.of(marketplace).getSearchIndex().search(query).size();
+
+        if (results == 0) {
+            return new Step(SEARCH, "1", "4", query, "2", MARKETPLACE_BACK);
+        }
+
+        int shown = Math.min(CustomerMenu.PAGE_SIZE, results);
+        return new Step(SEARCH, "1", "4", query, Integer.toString(shown + MarketplaceListing.NAVIGATION_OPTIONS),
+                        MARKETPLACE_BACK);
+    }
+
+    /**
+     * Picks a product from the first page of the unsorted marketplace and buys it or adds it to
+     * the cart. Buying picks the product with the most stock, so that the script doesn't fall out
+     * of step because a product sold out.
+     */
+    private Step pickProduct(String operation, String productOption, ArrayList<Product> products) {
+        int shown = Math.min(CustomerMenu.PAGE_SIZE, products.size());
+        int choice = random.nextInt(shown);
+
+        if (operation.equals(BUY)) {
+            for (int i = 0; i < shown; i++) {
+                if (products.get(i).getStockRemaining() > products.get(choice).getStockRemaining()) {
+                    choice = i;
+                }
+            }
+        }
+
+        return new Step(operation, "1", "1", Integer.toString(choice + 1), productOption, "1",
+                        Integer.toString(shown + MarketplaceListing.NAVIGATION_OPTIONS), MARKETPLACE_BACK);
+    }
+
+    /**
+     * Views a seller dashboard sorted highest first, then looks at the next page of customers.
+     * Seller menus aren't reachable from a customer session, so this step runs the dashboard
+     * directly; see runStep().
+     */
+    private Step dashboard() {
+        Step step = new Step(DASHBOARD, "2", "1", "3");
+        step.store = stores.get(random.nextInt(stores.size()));
+        step.expectedHeading = null;
+        return step;
+    }
+
+    // MEASURING
+
+    private void record(String operation, long nanos) {
+        recorders.computeIfAbsent(operation, k -> new Recorder()).add(nanos);
+    }
+
+    private String report(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        double seconds = elapsedNanos / 1e9;
+
+        sb.append(String.format("Load test finished in %.2f s (%d sessions fell out of step)\n",
+                                seconds, failedSessions.get()));
+        sb.append(String.format("%-12s %10s %10s %10s %10s %10s\n",
+                                "Operation", "Count", "Per sec", "p50 ms", "p99 ms", "p999 ms"));
+
+        for (Map.Entry<String, Recorder> entry : new TreeMap<>(recorders).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+
+            sb.append(String.format("%-12s %10d %10.1f %10.3f %10.3f %10.3f\n", entry.getKey(),
+                                    sorted.length, sorted.length / seconds, percentile(sorted, 0.5) / 1e6,
+                                    percentile(sorted, 0.99) / 1e6, percentile(sorted, 0.999) / 1e6));
+        }
+
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static class Recorder {
+        private long[] values = new long[64];
+        private int size;
+
+        private synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        private synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * A single operation in a script, and the lines of input it takes.
+     */
+    public static class Step {
+        private final String operation;
+        private final List<String> lines;
+        private Store store;
+        // Must have been printed before the step's first line is handed over, or null
+        private String expectedHeading = CUSTOMER_MENU_HEADING;
+
+        public Step(String operation, String... lines) {
+            this(operation, Arrays.asList(lines));
+        }
+
+        public Step(String operation, List<String> lines) {
+            this.operation = operation;
+            this.lines = lines;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+    }
+
+    /**
+     * Everything a session has printed since it was last handed a line of its script. Only the
+     * session's own thread writes to it or reads it.
+     */
+    private static class SessionOutput extends ByteArrayOutputStream {
+        private boolean contains(String text) {
+            return toString(StandardCharsets.UTF_8).contains(text);
+        }
+    }
+
+    /**
+     * Feeds a script to a Scanner one line per read, timing each operation as it goes. Handing
+     * over only one line at a time means the Scanner can't read ahead, so each read happens
+     * exactly when the menus ask for the next line.
+     */
+    private class ScriptInputStream extends InputStream {
+        private final ArrayList<Step> script;
+        private final SessionOutput output;
+        private boolean stopped;
+        private int stepIndex;
+        private int lineIndex;
+        private long stepStart;
+        private Step finished;
+        private long finishedStart;
+        private byte[] pending = new byte[0];
+        private int pendingPos;
+
+        private ScriptInputStream(ArrayList<Step> script, SessionOutput output) {
+            this.script = script;
+            this.output = output;
+        }
+
+        /**
+         * @return - true if every line of the script was handed over without falling out of step
+         */
+        private boolean isFinished() {
+            return !stopped && stepIndex >= script.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) == -1 ? -1 : b[0] & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pendingPos == pending.length && !nextLine()) {
+                return -1;
+            }
+
+            int n = Math.min(len, pending.length - pendingPos);
+            System.arraycopy(pending, pendingPos, b, off, n);
+            pendingPos += n;
+            return n;
+        }
+
+        private boolean nextLine() {
+            long now = System.nanoTime();
+
+            // The menus asking for another line means the last operation is done
+            if (finished != null) {
+                record(finished.operation, now - finishedStart);
+                finished = null;
+            }
+
+            // Dashboard steps run outside of the customer menus
+            while (stepIndex < script.size() && script.get(stepIndex).store != null) {
+                runDashboard(script.get(stepIndex++));
+            }
+
+            if (stopped || stepIndex >= script.size()) {
+                return false;
+            }
+
+            Step step = script.get(stepIndex);
+
+            if (lineIndex == 0) {
+                // Not at the menu the step starts from, so its lines would go to the wrong menu
+                if (step.expectedHeading != null && !output.contains(step.expectedHeading)) {
+                    stopped = true;
+                    return false;
+                }
+
+                stepStart = System.nanoTime();
+            }
+
+            output.reset();
+            pending = (step.lines.get(lineIndex) + "\n").getBytes(StandardCharsets.UTF_8);
+            pendingPos = 0;
+
+            if (++lineIndex == step.lines.size()) {
+                finished = step;
+                finishedStart = stepStart;
+                stepIndex++;
+                lineIndex = 0;
+            }
+
+            return true;
+        }
+
+        private void runDashboard(Step step) {
+            long start = System.nanoTime();
+            Scanner scan = new Scanner(String.join("\n", step.lines) + "\n");
+
+            try {
+                new SellerDashboard(step.store, marketplace, new PrintStream(OutputStream.nullOutputStream()))
+                    .goToSellerDashboard(scan);
+                record(step.operation, System.nanoTime() - start);
+            } catch (NoSuchElementException e) {
+                failedSessions.incrementAndGet();
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
+import java.io.PrintStream;
 import java.util.Scanner;
-import java.util.ArrayList;
-import java.io.*;
 
 /**
  * LoginMenu.java
@@ -22,12 +21,26 @@ import java.io.*;
 
 public class LoginMenu {
     Marketplace marketplace;
+    UserDirectory userDirectory;
+    MarketplaceServices services;
+    PrintStream out;
 
     public static final String LOGIN_MENU_OPTIONS = "1 - Login\n2 - Create New Account\n3 - Exit";
     public static final String ACCOUNT_TYPE_OPTIONS = "1 - Customer\n2 - Seller";
 
     public LoginMenu(Marketplace marketplace) {
+        this(marketplace, System.out);
+    }
+
+    /**
+     * @param marketplace - Contains all of the data on Users, Stores, and Products
+     * @param out         - where this menu prints, such as a MarketServer session
+     */
+    public LoginMenu(Marketplace marketplace, PrintStream out) {
         this.marketplace = marketplace;
+        this.out = out;
+        this.services = MarketplaceServices.of(marketplace);
+        this.userDirectory = services.getUserDirectory();
     }
     
     /**
@@ -39,8 +52,8 @@ public class LoginMenu {
         User user = null;
         
         do {
-            System.out.println("----------");
-            System.out.println("LOGIN OR CREATE NEW ACCOUNT BELOW");
+            out.println("----------");
+            out.println("LOGIN OR CREATE NEW ACCOUNT BELOW");
 
             int input = MenuHelper.getInput(scan, LOGIN_MENU_OPTIONS, 3);
 
@@ -66,14 +79,14 @@ public class LoginMenu {
      * @param scan
      */
     private User createNewAccount(Scanner scan) {
-        System.out.println("----------");
-        System.out.println("NEW ACCOUNT CREATION");
-        System.out.println("Enter 'X' instead of an email to return to the previous menu.");
+        out.println("----------");
+        out.println("NEW ACCOUNT CREATION");
+        out.println("Enter 'X' instead of an email to return to the previous menu.");
         
         User newUser = null;
 
         while (true) {
-            System.out.print("Email: ");
+            out.print("Email: ");
             String email = scan.nextLine();
 
             if (email.trim().equals("X")) {
@@ -81,28 +94,36 @@ public class LoginMenu {
             }
 
             if (!isNewEmail(email)) {
-                System.out.println("An account under that email already exists.");
+                out.println("An account under that email already exists.");
                 continue;
             } else if (!isValidEmail(email)) {
-                System.out.println("Ensure that the email you entered is formatted correctly.");
+                out.println("Ensure that the email you entered is formatted correctly.");
                 continue;
             }
 
             String password;
 
             while (true) {
-                System.out.print("Password: ");
+                out.print("Password: ");
                 password = scan.nextLine();
 
                 if (password.equals("X")) {
-                    System.out.println("'X' is not an accepted password due to its use in navigating certain menus.");
-                    System.out.println("We apologize for this inconvenience.");
+                    out.println("'X' is not an accepted password due to its use in navigating certain menus.");
+                    out.println("We apologize for this inconvenience.");
                 } else {
                     break;
                 }
             }
 
             int input = MenuHelper.getInput(scan, ACCOUNT_TYPE_OPTIONS, 2);
+            String accountType = (input == 1 ? "customer" : "seller");
+
+            // The email is claimed before the account is written, so two people signing up with
+            // the same email at once can't both get it
+            if (!services.accountCreated(email, password, accountType)) {
+                out.println("An account under that email already exists.");
+                continue;
+            }
 
             switch (input) {
                 case 1:
@@ -119,28 +140,14 @@ public class LoginMenu {
     }
 
     /**
-     * Determines whether or not the user has entered a new email by checking it against the emails
-     * of all of the customers and then all of the sellers.
+     * Determines whether or not the user has entered a new email by looking it up in the user
+     * directory, which contains the emails of all of the customers and sellers.
      * 
      * @param email - email to be checked
      * @return
      */
     private boolean isNewEmail(String email) {
-        ArrayList<Customer> allCustomers = marketplace.getAllCustomers();
-        ArrayList<Seller> allSellers = marketplace.getAllSellers();
-
-        for (Customer c : allCustomers) {
-            if (email.equals(c.getEmail())) {
-                return false;
-            }
-        }
-        for (Seller s : allSellers) {
-            if (email.equals(s.getEmail())) {
-                return false;
-            }
-        }
-
-        return true;
+        return !userDirectory.contains(email);
     }
 
     /**
@@ -176,10 +183,10 @@ public class LoginMenu {
      * @param scan
      */
     private User existingUserLogin(Scanner scan) {
-        System.out.println("----------");
-        System.out.println("LOGIN BELOW");
-        System.out.println("Enter 'X' instead of an email to return to the previous menu.");
-        System.out.println("When entering a password, you can enter 'X' instead to return to entering an email.");
+        out.println("----------");
+        out.println("LOGIN BELOW");
+        out.println("Enter 'X' instead of an email to return to the previous menu.");
+        out.println("When entering a password, you can enter 'X' instead to return to entering an email.");
 
         User user = null;
         
@@ -205,42 +212,33 @@ public class LoginMenu {
     // METHODS BELOW ARE USED FOR LOGGING IN AN EXISTING USER
 
     /**
-     * This method finds the info in user_list.csv that corresponds to the email that it also
-     * obtains from the user. X can be used to back out of entering the email, returning the user
-     * to selecting between logging in as an existing user or creating a new account.
+     * This method finds the info from user_list.csv that corresponds to the email that it also
+     * obtains from the user. The info is looked up in the user directory, which is loaded from
+     * user_list.csv once rather than on every attempt. X can be used to back out of entering the
+     * email, returning the user to selecting between logging in as an existing user or creating
+     * a new account.
      * 
      * @param scan
      * @return     - info in user_list.csv corresponding to received email
      */
     private String[] findUser(Scanner scan) {
-        File f = new File("user_list.csv");
-
         while (true) {
-            System.out.print("Email: ");
+            out.print("Email: ");
             String email = scan.nextLine();
 
             if (email.trim().equals("X")) {
                 return null;
             }
 
-            try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                String line = br.readLine();
-
-                while (line != null) {
-                    String[] userInfo = line.split(",");
-
-                    if (email.equals(userInfo[0])) {
-                        return userInfo;
-                    }
+            long start = System.nanoTime();
+            String[] userInfo = userDirectory.findUser(email);
+            Metrics.LOGIN_LOOKUP.recordSince(start);
 
-                    line = br.readLine();
-                }
-            } catch (IOException e) {
-                System.out.println("Error! Issue while reading user_list.csv to find matching email.");
-                return null;
+            if (userInfo != null) {
+                return userInfo;
             }
 
-            System.out.println("The email you entered does not match an existing account.");
+            out.println("The email you entered does not match an existing account.");
         }
     }
 
@@ -256,7 +254,7 @@ public class LoginMenu {
      */
     private boolean getPassword(Scanner scan, String[] userInfo) {
         while (true) {
-            System.out.print("Password: ");
+            out.print("Password: ");
             String password = scan.nextLine();
 
             if (password.trim().equals("X")) {
@@ -267,7 +265,7 @@ public class LoginMenu {
                 return true;
             }
 
-            System.out.println("Incorrect Password");
+            out.println("Incorrect Password");
         }
     }
 
@@ -0,0 +1,200 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * MarketServer.java
+ *
+ * Runs the marketplace menus for many users at once in a single program, with every session
+ * sharing the same Marketplace. Each connection to the server's local socket is its own session
+ * and runs on its own virtual thread, so thousands of shoppers can be connected at the same time
+ * without thousands of operating system threads.
+ *
+ * The protocol is the same as the console: the client sends lines of input, exactly as they
+ * would be typed, and receives the menu text that would have been printed. A session has its
+ * own Scanner reading from the connection and its own buffered PrintStream writing to it, and
+ * both are passed to the LoginMenu and CustomerMenu it runs. The classes those menus hand off to
+ * that still print with System.out (MenuHelper, ShoppingCartMenu, CustomerDashboard, and
+ * Product's reviews) reach the same stream through SessionConsole. Output is sent when the
+ * session next waits for input, and a client that stops reading only holds up its own session.
+ *
+ * Only customers are served. Sellers are sent back to the login menu, since the seller menu
+ * (which edits stores and products, and is where SellerDashboard is opened from) isn't part of
+ * what the server runs yet; seller accounts still have to use the console program.
+ *
+ * While the server is running, the timers in Metrics are written to METRICS_FILE every
+ * METRICS_PERIOD_SECONDS.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-11-2022
+ *
+ */
+
+public class MarketServer {
+    public static final int DEFAULT_PORT = 7070;
+    public static final String METRICS_FILE = "metrics.txt";
+    public static final long METRICS_PERIOD_SECONDS = 60;
+
+    private final Marketplace marketplace;
+    private final int port;
+    private ServerSocket serverSocket;
+
+    /**
+     * @param marketplace - marketplace shared by every session
+     * @param port        - local port to listen on
+     */
+    public MarketServer(Marketplace marketplace, int port) {
+        this.marketplace = marketplace;
+        this.port = port;
+    }
+
+    /**
+     * Accepts connections until stop() is called, starting a virtual thread for each session.
+     *
+     * @throws IOException if the port cannot be listened on
+     */
+    public void run() throws IOException {
+        SessionConsole.install();
+
+        // Sessions share the indexes, so build them once before anyone connects
+        MarketplaceServices.of(marketplace);
+        Metrics.startDump(new File(METRICS_FILE), METRICS_PERIOD_SECONDS);
+
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        System.out.printf("Marketplace server listening on port %d\n", serverSocket.getLocalPort());
+
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    break;
+                }
+                throw e;
+            }
+
+            Thread.ofVirtual().name("session-" + socket.getPort()).start(() -> runSession(socket));
+        }
+    }
+
+    public void stop() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    /**
+     * Runs a single session the same way the console program does: log in, go to the menu for
+     * the type of user, and log in again after logging out, until the user exits or disconnects.
+     *
+     * @param socket - connection for this session
+     */
+    private void runSession(Socket socket) {
+        try (socket;
+             PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false,
+                                               StandardCharsets.UTF_8);
+             Scanner scan = new Scanner(new FlushingInputStream(socket.getInputStream(), out),
+                                        StandardCharsets.UTF_8)) {
+            SessionConsole.bind(out);
+
+            runMenus(scan, out);
+        } catch (IOException | NoSuchElementException e) {
+            // The client disconnected
+        } finally {
+            SessionConsole.unbind();
+        }
+    }
+
+    /**
+     * @param scan - Scanner reading this session's input
+     * @param out  - stream the session's output is written to
+     */
+    public void runMenus(Scanner scan, PrintStream out) {
+        LoginMenu loginMenu = new LoginMenu(marketplace, out);
+
+        while (true) {
+            User user = loginMenu.login(scan);
+
+            if (user == null) {
+                return;
+            }
+
+            if (user instanceof Customer) {
+                CustomerMenu customerMenu = new CustomerMenu((Customer) user, marketplace, out);
+
+                if (customerMenu.goToCustomerMenu(scan)) {
+                    return;
+                }
+            } else {
+                out.println("Seller accounts can only be used from the marketplace console at this time.");
+            }
+
+            out.flush();
+        }
+    }
+
+    /**
+     * Starts the server for an already loaded marketplace on a background thread.
+     *
+     * @param marketplace - marketplace shared by every session
+     * @param port        - local port to listen on
+     * @return            - the running server
+     */
+    public static MarketServer start(Marketplace marketplace, int port) {
+        MarketServer server = new MarketServer(marketplace, port);
+
+        Thread thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                System.out.println("Error! Issue while running the marketplace server.");
+            }
+        }, "market-server");
+        thread.start();
+
+        return server;
+    }
+
+    /**
+     * Sends any output that hasn't been sent yet before waiting for input, so that prompts
+     * printed without a new line (like "Email: ") reach the client before the session waits for
+     * its answer.
+     */
+    private static class FlushingInputStream extends FilterInputStream {
+        private final OutputStream out;
+
+        private FlushingInputStream(InputStream in, OutputStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            out.flush();
+            return super.read(b, off, len);
+        }
+    }
+}
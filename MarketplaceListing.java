@@ -0,0 +1,133 @@
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * MarketplaceListing.java
+ *
+ * Shows a list of products one page at a time. Only the products on the current page are ever
+ * formatted, and they are formatted into the same buffer every time, so listing a marketplace
+ * with tens of thousands of products costs no more than listing one page of it. The listing is
+ * used for the unsorted marketplace, the sorted marketplace, and search results alike.
+ *
+ * The menu text for a page numbers the products on it from 1, followed by the four navigation
+ * options (next page, previous page, jump to page, and back), so the number of options is always
+ * getPageItemCount() + NAVIGATION_OPTIONS.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-05-2022
+ *
+ */
+
+public class MarketplaceListing {
+    public static final int NAVIGATION_OPTIONS = 4;
+
+    private final int pageSize;
+    private final StringBuilder buffer = new StringBuilder();
+    private final Formatter formatter = new Formatter(buffer);
+
+    private List<Product> products = new ArrayList<>();
+    private int page;
+
+    /**
+     * @param pageSize - number of products shown on each page
+     */
+    public MarketplaceListing(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts showing a new list of products, beginning on the first page.
+     *
+     * @param products - products to list, already in the order in which they will be displayed
+     */
+    public void setProducts(List<Product> products) {
+        this.products = products;
+        this.page = 0;
+    }
+
+    /**
+     * Formats the current page and its navigation options.
+     *
+     * @return - menu text for the current page
+     */
+    public String render() {
+        buffer.setLength(0);
+
+        int start = page * pageSize;
+        int count = getPageItemCount();
+
+        for (int i = 0; i < count; i++) {
+            Product product = products.get(start + i);
+
+            formatter.format("%d - %s | $%.2f | Offered by: %s\n",
+                             i + 1, product.getProdName(), product.getPrice(), product.getWhichStore());
+        }
+
+        formatter.format("%d - Next Page\n%d - Previous Page\n%d - Jump to Page\n%d - Back",
+                         count + 1, count + 2, count + 3, count + 4);
+
+        return buffer.toString();
+    }
+
+    /**
+     * @param selection - number the user selected, starting at 1
+     * @return          - the product with that number on the current page
+     */
+    public Product getItem(int selection) {
+        return products.get(page * pageSize + selection - 1);
+    }
+
+    /**
+     * @return - number of products shown on the current page
+     */
+    public int getPageItemCount() {
+        return Math.max(0, Math.min(pageSize, products.size() - page * pageSize));
+    }
+
+    /**
+     * @return - current page, starting at 1
+     */
+    public int getPageNumber() {
+        return page + 1;
+    }
+
+    /**
+     * @return - total number of pages (at least 1, even when there are no products)
+     */
+    public int getPageCount() {
+        return Math.max(1, (products.size() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * @return - false if already on the last page
+     */
+    public boolean nextPage() {
+        return jumpToPage(page + 2);
+    }
+
+    /**
+     * @return - false if already on the first page
+     */
+    public boolean previousPage() {
+        return jumpToPage(page);
+    }
+
+    /**
+     * @param pageNumber - page to go to, starting at 1
+     * @return           - false if there is no such page
+     */
+    public boolean jumpToPage(int pageNumber) {
+        if (pageNumber < 1 || pageNumber > getPageCount()) {
+            return false;
+        }
+
+        page = pageNumber - 1;
+        return true;
+    }
+}
@@ -0,0 +1,388 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MarketplaceServices.java
+ *
+ * The Marketplace holds all of the Users, Stores, and Products, while this class holds the
+ * indexes that are built on top of that data so that the menus don't have to scan the entire
+ * marketplace every time they need something. There is one instance per Marketplace, and every
+ * menu obtains it through of(), so that all of them share (and keep up to date) the same
+ * indexes.
+ *
+ * Sellers' changes to their products are made by Seller and Store, which don't report them here
+ * through productAdded(), productChanged(), and productRemoved(). So that the indexes can't drift
+ * away from the products actually on the market, checkIndexes() is called before they are read.
+ * At most once every INDEX_CHECK_INTERVAL_MILLIS, it goes over every listed product, compares it
+ * with a fingerprint of the fields the indexes were built from, and applies whatever has changed
+ * through those same methods. That check costs time in proportion to the whole catalog, not to
+ * what changed, although it is paid by one read per interval rather than by every read. Between
+ * checks, a seller's edit isn't seen: search, sorting, filtering, and suggestions (and the query
+ * cache in front of them) can give results from before the edit for up to
+ * INDEX_CHECK_INTERVAL_MILLIS, or until the next read after that.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-02-2022
+ *
+ */
+
+public class MarketplaceServices {
+    public static final long INDEX_CHECK_INTERVAL_MILLIS = 1000;
+    public static final int CUSTOMER_LOCK_COUNT = 64;
+
+    private static MarketplaceServices instance;
+
+    private final Marketplace marketplace;
+    private final UserDirectory userDirectory;
+    private final ProductCatalog catalog = new ProductCatalog();
+    private final FacetIndex facetIndex = new FacetIndex(catalog);
+    private final SearchIndex<Product> searchIndex = new SearchIndex<>();
+    private final Autocomplete<Integer> autocomplete = new Autocomplete<>();
+    private final SortedIndex<Product> priceIndex = new SortedIndex<>(Product::getPrice);
+    private final SortedIndex<Product> stockIndex = new SortedIndex<>(Product::getStockRemaining);
+    private final SalesAggregates salesAggregates;
+    private final StockReservations stockReservations = new StockReservations();
+    private final QueryCache<Product> queryCache = new QueryCache<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong stockVersion = new AtomicLong();
+    private final AtomicLong lastIndexCheck = new AtomicLong();
+
+    // Every product in the indexes, with a fingerprint of the fields they were built from
+    private final IdentityHashMap<Product, Long> indexed = new IdentityHashMap<>();
+    // Customers share these by email, so there are never more locks than this however many log in
+    private final Object[] customerLocks = new Object[CUSTOMER_LOCK_COUNT];
+
+    private MarketplaceServices(Marketplace marketplace) {
+        this.marketplace = marketplace;
+        this.userDirectory = new UserDirectory(marketplace);
+        this.salesAggregates = new SalesAggregates(catalog, userDirectory);
+
+        for (int i = 0; i < customerLocks.length; i++) {
+            customerLocks[i] = new Object();
+        }
+
+        // Purchases are counted by catalog id, so the products need ids before the histories are
+        // counted, and the autocomplete needs the counts before it is built
+        for (Product product : marketplace.getAllProducts()) {
+            catalog.add(product);
+        }
+
+        for (Customer customer : marketplace.getAllCustomers()) {
+            salesAggregates.countHistory(customer);
+        }
+
+        for (Product product : marketplace.getAllProducts()) {
+            productAdded(product);
+        }
+
+        lastIndexCheck.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the services for the given marketplace, building them the first time they are
+     * requested.
+     *
+     * @param marketplace - marketplace the services are built on
+     * @return            - shared services for that marketplace
+     */
+    public static synchronized MarketplaceServices of(Marketplace marketplace) {
+        if (instance == null || instance.marketplace != marketplace) {
+            instance = new MarketplaceServices(marketplace);
+        }
+
+        return instance;
+    }
+
+    public Marketplace getMarketplace() {
+        return marketplace;
+    }
+
+    public UserDirectory getUserDirectory() {
+        return userDirectory;
+    }
+
+    public ProductCatalog getCatalog() {
+        return catalog;
+    }
+
+    public FacetIndex getFacetIndex() {
+        return facetIndex;
+    }
+
+    public SearchIndex<Product> getSearchIndex() {
+        return searchIndex;
+    }
+
+    public Autocomplete<Integer> getAutocomplete() {
+        return autocomplete;
+    }
+
+    /**
+     * Suggests product and store names starting with what the user has typed, best selling
+     * first.
+     *
+     * @param prefix - text entered by the user
+     * @return       - up to Autocomplete.DEFAULT_MAX_SUGGESTIONS names
+     */
+    public List<String> suggest(String prefix) {
+        checkIndexes();
+        return autocomplete.suggest(prefix);
+    }
+
+    public SortedIndex<Product> getPriceIndex() {
+        return priceIndex;
+    }
+
+    public SortedIndex<Product> getStockIndex() {
+        return stockIndex;
+    }
+
+    /**
+     * Lists every product ordered by price or by quantity remaining. The result is cached until
+     * a product is added, edited, or removed, or (when ordered by quantity) any stock changes.
+     *
+     * @param byPrice   - true to order by price, false to order by quantity remaining
+     * @param lowToHigh - direction of the order
+     * @return          - the products in order, which must not be modified
+     */
+    public List<Product> sortedView(boolean byPrice, boolean lowToHigh) {
+        checkIndexes();
+
+        String key = (byPrice ? "price:" : "stock:") + (lowToHigh ? "asc" : "desc");
+        SortedIndex<Product> index = (byPrice ? priceIndex : stockIndex);
+
+        // Both versions only ever go up, so their sum changes whenever either one does
+        long version = (byPrice ? catalogVersion.get() : catalogVersion.get() + stockVersion.get());
+
+        return queryCache.get(key, version, () -> index.inOrder(lowToHigh));
+    }
+
+    /**
+     * Searches the marketplace. The result is cached until a product is added, edited, or
+     * removed; changes in stock don't affect which products match.
+     *
+     * @param search - text entered by the user
+     * @return       - matching products, which must not be modified
+     */
+    public List<Product> search(String search) {
+        checkIndexes();
+
+        String query = search.toLowerCase().trim();
+
+        return queryCache.get("search:" + query, catalogVersion.get(), () -> searchIndex.search(query));
+    }
+
+    /**
+     * Brings the indexes up to date with the products on the market, if they haven't been
+     * checked in the last INDEX_CHECK_INTERVAL_MILLIS. Products that have appeared or
+     * disappeared are added or removed, products whose fields have changed are updated, and
+     * products whose stock has changed are moved in the stock index. Every listed product is
+     * copied and fingerprinted, and the whole stock index is checked, so a check takes time in
+     * proportion to the size of the catalog even when nothing has changed. Only one thread checks
+     * at a time; the others carry on with the indexes as they are, which may be up to
+     * INDEX_CHECK_INTERVAL_MILLIS out of date.
+     */
+    public void checkIndexes() {
+        long now = System.currentTimeMillis();
+        long last = lastIndexCheck.get();
+
+        if (now - last < INDEX_CHECK_INTERVAL_MILLIS || !lastIndexCheck.compareAndSet(last, now)) {
+            return;
+        }
+
+        // A seller may be changing their products while this is copied, which can leave a null
+        // where a product was being added; it is picked up by the next check
+        ArrayList<Product> listed = new ArrayList<>(marketplace.getAllProducts());
+
+        synchronized (indexed) {
+            IdentityHashMap<Product, Long> current = new IdentityHashMap<>(listed.size());
+
+            for (Product product : listed) {
+                if (product != null) {
+                    current.put(product, fingerprint(product));
+                }
+            }
+
+            for (Product product : new ArrayList<>(indexed.keySet())) {
+                if (!current.containsKey(product)) {
+                    productRemoved(product);
+                }
+            }
+
+            for (Map.Entry<Product, Long> product : current.entrySet()) {
+                Long fingerprint = indexed.get(product.getKey());
+
+                if (fingerprint == null) {
+                    productAdded(product.getKey());
+                } else if (!fingerprint.equals(product.getValue())) {
+                    productChanged(product.getKey());
+                }
+            }
+        }
+
+        if (stockIndex.refreshChanged() > 0) {
+            stockVersion.incrementAndGet();
+        }
+    }
+
+    public QueryCache<Product> getQueryCache() {
+        return queryCache;
+    }
+
+    public SalesAggregates getSalesAggregates() {
+        return salesAggregates;
+    }
+
+    public StockReservations getStockReservations() {
+        return stockReservations;
+    }
+
+    /**
+     * Must be called before a new Customer or Seller is constructed with newUser set to true,
+     * and the account must only be created if this returns true.
+     *
+     * @param email       - email of the new account
+     * @param password    - password of the new account
+     * @param accountType - "customer" or "seller"
+     * @return            - false if an account already exists under this email
+     */
+    public boolean accountCreated(String email, String password, String accountType) {
+        return userDirectory.addUser(email, password, accountType);
+    }
+
+    /**
+     * Customer doesn't synchronize its purchase history or shopping cart, and every session
+     * that logs in under the same email gets its own Customer object, so changes to either are
+     * made while holding the lock for the customer's email instead.
+     *
+     * @param customer - customer whose history or cart is being changed
+     * @return         - lock shared by every Customer object with that email
+     */
+    public Object customerLock(Customer customer) {
+        return customerLocks[Math.floorMod(customer.getEmail().hashCode(), customerLocks.length)];
+    }
+
+    /**
+     * Must be called after a purchase has been added to the product's and customer's histories
+     * (addToPurchaseHistory and addPurchasedProduct), instead of stockChanged(). This is what adds
+     * the purchase to the sales totals, so it has to be called for every purchase, including each
+     * line of a cart checkout.
+     *
+     * @param customer - customer who made the purchase
+     * @param product  - product that was purchased
+     * @param quantity - number purchased
+     */
+    public void purchaseRecorded(Customer customer, Product product, int quantity) {
+        int id = salesAggregates.purchaseMade(customer, product, quantity);
+
+        if (id != ProductCatalog.NOT_FOUND) {
+            autocomplete.addWeight(id, quantity);
+        }
+        stockIndex.refresh(product);
+        stockVersion.incrementAndGet();
+    }
+
+    /**
+     * Must be called after a product's quantity remaining changes other than by a purchase,
+     * which purchaseRecorded() already takes care of.
+     *
+     * @param product - product whose stock changed
+     */
+    public void stockChanged(Product product) {
+        stockIndex.refresh(product);
+        stockVersion.incrementAndGet();
+    }
+
+    // METHODS BELOW MUST BE CALLED WHENEVER A SELLER CHANGES THEIR PRODUCTS
+
+    /**
+     * Adds a product that a seller has just listed to the indexes.
+     *
+     * @param product - product that was added
+     */
+    public void productAdded(Product product) {
+        synchronized (indexed) {
+            indexed.put(product, fingerprint(product));
+        }
+
+        int id = catalog.add(product);
+        int sold = salesAggregates.getStoreSales(product.getWhichStore()).getProductSales(id);
+
+        facetIndex.add(product);
+        searchIndex.add(product, searchFields(product));
+        autocomplete.add(id, sold, product.getProdName(), product.getWhichStore());
+        priceIndex.add(product);
+        stockIndex.add(product);
+        catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * Updates the indexes after a seller has edited one of their products.
+     *
+     * @param product - product that was edited
+     */
+    public void productChanged(Product product) {
+        synchronized (indexed) {
+            indexed.put(product, fingerprint(product));
+        }
+
+        catalog.update(product);
+        facetIndex.update(product);
+        searchIndex.update(product, searchFields(product));
+        autocomplete.update(catalog.idOf(product), product.getProdName(), product.getWhichStore());
+        priceIndex.refresh(product);
+        stockIndex.refresh(product);
+        catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * Removes a product that a seller has taken off the market from the indexes.
+     *
+     * @param product - product that was removed
+     */
+    public void productRemoved(Product product) {
+        synchronized (indexed) {
+            indexed.remove(product);
+        }
+
+        facetIndex.remove(product);
+        autocomplete.remove(catalog.idOf(product));
+        catalog.remove(product);
+        searchIndex.remove(product);
+        priceIndex.remove(product);
+        stockIndex.remove(product);
+        stockReservations.forget(product);
+        catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * Combines the fields the indexes are built from, apart from the stock, which changes with
+     * every purchase and is checked against the stock index instead.
+     */
+    private static long fingerprint(Product product) {
+        long hash = Objects.hashCode(product.getProdName());
+
+        hash = hash * 31 + Objects.hashCode(product.getDescription());
+        hash = hash * 31 + Objects.hashCode(product.getWhichStore());
+        hash = hash * 31 + Objects.hashCode(product.getMaterial());
+        hash = hash * 31 + Objects.hashCode(product.getColour());
+        return hash * 31 + Double.hashCode(product.getPrice());
+    }
+
+    /**
+     * The fields that the marketplace search is referenced against.
+     */
+    private static String[] searchFields(Product product) {
+        return new String[] { product.getProdName(), product.getDescription(), product.getWhichStore(),
+                              product.getMaterial(), product.getColour() };
+    }
+}
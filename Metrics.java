@@ -0,0 +1,115 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics.java
+ *
+ * Timers for the operations that the marketplace spends most of its time on. Each one is a
+ * LatencyHistogram that the code being timed records into directly, for example:
+ *
+ *     long start = System.nanoTime();
+ *     ...
+ *     Metrics.SEARCH.recordSince(start);
+ *
+ * Every timer is registered with JMX under "marketplace:type=Latency,name=...", so it can be
+ * watched from JConsole or VisualVM while the marketplace is running. startDump() can also be
+ * used to write all of them to a text file every so often. Nothing is computed until someone
+ * reads a timer, so recording is about as cheap as reading the clock.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-13-2022
+ *
+ */
+
+public class Metrics {
+    public static final LatencyHistogram LOGIN_LOOKUP = new LatencyHistogram("login-lookup");
+    public static final LatencyHistogram SORTED_VIEW = new LatencyHistogram("sorted-view");
+    public static final LatencyHistogram SEARCH = new LatencyHistogram("search");
+    public static final LatencyHistogram FILTER = new LatencyHistogram("filter");
+    public static final LatencyHistogram AUTOCOMPLETE = new LatencyHistogram("autocomplete");
+    public static final LatencyHistogram PURCHASE = new LatencyHistogram("purchase");
+    public static final LatencyHistogram EXPORT = new LatencyHistogram("export");
+    public static final LatencyHistogram SELLER_DASHBOARD = new LatencyHistogram("seller-dashboard");
+
+    public static final LatencyHistogram[] ALL = { LOGIN_LOOKUP, SORTED_VIEW, SEARCH, FILTER, AUTOCOMPLETE, PURCHASE,
+        EXPORT, SELLER_DASHBOARD };
+
+    private static ScheduledExecutorService dumper;
+
+    static {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        for (LatencyHistogram histogram : ALL) {
+            try {
+                ObjectName name = new ObjectName("marketplace:type=Latency,name=" + histogram.getName());
+
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(histogram, name);
+                }
+            } catch (JMException e) {
+                System.out.println("Error! Issue while registering the " + histogram.getName() + " metrics.");
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * @return - every timer, one per line
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("%-18s %10s %10s %10s %10s %10s %10s\n",
+                                "Operation", "Count", "Mean us", "p50 us", "p99 us", "p999 us", "Max us"));
+
+        for (LatencyHistogram h : ALL) {
+            sb.append(String.format("%-18s %10d %10.1f %10.1f %10.1f %10.1f %10.1f\n", h.getName(),
+                                    h.getCount(), h.getMeanMicros(), h.getP50Micros(), h.getP99Micros(),
+                                    h.getP999Micros(), h.getMaxMicros()));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Starts overwriting the given file with dump() every periodSeconds. The dump goes to a file
+     * rather than the console so that it doesn't get mixed in with the menus.
+     *
+     * @param file          - file to write to
+     * @param periodSeconds - how often to write it
+     */
+    public static synchronized void startDump(File file, long periodSeconds) {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        dumper.scheduleAtFixedRate(() -> {
+            try (PrintWriter pw = new PrintWriter(file)) {
+                pw.print(dump());
+            } catch (FileNotFoundException e) {
+                System.out.println("Error! Issue while writing metrics to " + file.getName() + ".");
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+}
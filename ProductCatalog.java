@@ -0,0 +1,272 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProductCatalog.java
+ *
+ * A record of every product listed on the marketplace. Each product is given a catalog id when it
+ * is first added, and its store, material, and colour are kept as codes from a shared
+ * AttributeDictionary in arrays indexed by that id, so that checks like "is this product from
+ * that store" are comparisons between two ints. The Product itself still holds all of its
+ * Strings, so the catalog is there to make those checks and joins cheap, not to save memory: it
+ * costs an extra slot in each array per product.
+ *
+ * Ids belong to a single Product object, so two products with the same name in the same store
+ * each get their own id. Once a product is taken off the market its id is retired rather than
+ * given to another product, so that sales totals kept by id stay with the product that made
+ * them. Purchase histories hold their own copies of products, which are matched to the
+ * listed product from the same store with the same name (the most recently listed one, if there
+ * are several), since store and name are all a history records. A purchase of a product that
+ * isn't listed any more has no id.
+ *
+ * Looking products up never takes a lock, since it happens on every search, filter, and
+ * purchase. Changes to the catalog are made one at a time, and every one ends by writing the
+ * volatile columns field, so anything read through it afterwards sees the whole change.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-14-2022
+ *
+ */
+
+public class ProductCatalog {
+    public static final int NOT_FOUND = -1;
+
+    private final AttributeDictionary stores = new AttributeDictionary();
+    private final AttributeDictionary materials = new AttributeDictionary();
+    private final AttributeDictionary colours = new AttributeDictionary();
+
+    private final ConcurrentHashMap<ProductKey, Integer> ids = new ConcurrentHashMap<>();
+    // Store name, then product name, to the id of a listed product. Entries left behind by a
+    // rename or removal are checked against the product and dropped when they are next looked up
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> listedByName =
+        new ConcurrentHashMap<>();
+    private volatile Columns columns = new Columns(64);
+    private volatile int count;
+
+    /**
+     * Adds a product to the catalog, or updates its codes if it is already there.
+     *
+     * @param product - product being added
+     * @return        - the product's catalog id
+     */
+    public synchronized int add(Product product) {
+        int id = idOf(product);
+        Columns c = columns;
+
+        if (id == NOT_FOUND) {
+            id = count;
+
+            if (id == c.products.length) {
+                c = new Columns(c, id * 2);
+            }
+
+            ids.put(new ProductKey(product), id);
+            count++;
+        }
+
+        c.products[id] = product;
+        c.listed[id] = true;
+        encode(c, product, id);
+        columns = c;
+
+        listedByName.computeIfAbsent(product.getWhichStore(), store -> new ConcurrentHashMap<>())
+                    .put(product.getProdName(), id);
+        return id;
+    }
+
+    /**
+     * Re-encodes a product's attributes after a seller has edited it.
+     *
+     * @param product - product that was edited
+     */
+    public synchronized void update(Product product) {
+        add(product);
+    }
+
+    /**
+     * Takes a product off the market. Its id is retired, and the catalog no longer holds on to
+     * it.
+     *
+     * @param product - product being removed
+     */
+    public synchronized void remove(Product product) {
+        Integer id = ids.remove(new ProductKey(product));
+
+        if (id != null) {
+            Columns c = columns;
+            c.products[id] = null;
+            c.listed[id] = false;
+            columns = c;
+
+            ConcurrentHashMap<String, Integer> names = listedByName.get(product.getWhichStore());
+
+            if (names != null) {
+                names.remove(product.getProdName(), id);
+            }
+        }
+    }
+
+    private void encode(Columns c, Product product, int id) {
+        c.storeCodes[id] = stores.encode(product.getWhichStore());
+        c.materialCodes[id] = materials.encode(product.getMaterial());
+        c.colourCodes[id] = colours.encode(product.getColour());
+    }
+
+    /**
+     * @param product - listed product being looked up
+     * @return        - the product's catalog id, or NOT_FOUND if it isn't listed
+     */
+    public int idOf(Product product) {
+        Integer id = ids.get(new ProductKey(product));
+
+        return (id == null ? NOT_FOUND : id);
+    }
+
+    /**
+     * Finds the id of a product from a purchase history. A listed product is its own match;
+     * otherwise the listed product from the same store with the same name is used.
+     *
+     * @param product - product from a purchase history
+     * @return        - the matching product's catalog id, or NOT_FOUND if none is listed
+     */
+    public int idOfPurchased(Product product) {
+        int id = idOf(product);
+
+        return (id != NOT_FOUND ? id : idOf(product.getWhichStore(), product.getProdName()));
+    }
+
+    /**
+     * @param store    - name of the product's store
+     * @param prodName - name of the product
+     * @return         - catalog id of a listed product with that store and name, or NOT_FOUND
+     */
+    public int idOf(String store, String prodName) {
+        ConcurrentHashMap<String, Integer> names = listedByName.get(store);
+        Integer id = (names == null ? null : names.get(prodName));
+
+        if (id == null) {
+            return NOT_FOUND;
+        }
+
+        Product product = columns.products[id];
+
+        if (product == null || !store.equals(product.getWhichStore()) || !prodName.equals(product.getProdName())) {
+            dropStaleName(store, prodName, id);
+            return NOT_FOUND;
+        }
+
+        return id;
+    }
+
+    /**
+     * Checked again under the lock, since the product may have just been renamed back.
+     */
+    private synchronized void dropStaleName(String store, String prodName, int id) {
+        Product product = columns.products[id];
+
+        if (product == null || !store.equals(product.getWhichStore()) || !prodName.equals(product.getProdName())) {
+            listedByName.get(store).remove(prodName, id);
+        }
+    }
+
+    /**
+     * @param id - catalog id
+     * @return   - the product, or null if it has been taken off the market
+     */
+    public Product get(int id) {
+        return columns.products[id];
+    }
+
+    /**
+     * @param id - catalog id
+     * @return   - true if the product is currently on the market
+     */
+    public boolean isListed(int id) {
+        return columns.listed[id];
+    }
+
+    public int getStoreCode(int id) {
+        return columns.storeCodes[id];
+    }
+
+    public int getMaterialCode(int id) {
+        return columns.materialCodes[id];
+    }
+
+    public int getColourCode(int id) {
+        return columns.colourCodes[id];
+    }
+
+    /**
+     * @return - number of ids given out, including those of products not on the market
+     */
+    public int getIdCount() {
+        return count;
+    }
+
+    public AttributeDictionary getStores() {
+        return stores;
+    }
+
+    public AttributeDictionary getMaterials() {
+        return materials;
+    }
+
+    public AttributeDictionary getColours() {
+        return colours;
+    }
+
+    /**
+     * Identifies a product by the object itself rather than by its fields, which sellers can edit.
+     */
+    private static final class ProductKey {
+        private final Product product;
+
+        private ProductKey(Product product) {
+            this.product = product;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ProductKey && ((ProductKey) o).product == product;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(product);
+        }
+    }
+
+    /**
+     * Everything the catalog keeps per id, in arrays indexed by id. When they fill up, larger
+     * copies are made and published together.
+     */
+    private static class Columns {
+        private final Product[] products;
+        private final boolean[] listed;
+        private final int[] storeCodes;
+        private final int[] materialCodes;
+        private final int[] colourCodes;
+
+        private Columns(int capacity) {
+            products = new Product[capacity];
+            listed = new boolean[capacity];
+            storeCodes = new int[capacity];
+            materialCodes = new int[capacity];
+            colourCodes = new int[capacity];
+        }
+
+        private Columns(Columns old, int capacity) {
+            products = Arrays.copyOf(old.products, capacity);
+            listed = Arrays.copyOf(old.listed, capacity);
+            storeCodes = Arrays.copyOf(old.storeCodes, capacity);
+            materialCodes = Arrays.copyOf(old.materialCodes, capacity);
+            colourCodes = Arrays.copyOf(old.colourCodes, capacity);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PurchaseExporter.java
+ *
+ * Writes a customer's purchase history to a CSV file. Each row is formatted straight into a
+ * buffered writer as the history is read, so exporting uses the same small amount of memory no
+ * matter how long the history is. If the file name ends in ".gz" the file is gzip-compressed as
+ * it is written. An export can also be run in the background, so that a customer with a very
+ * long history isn't stuck waiting at the menu.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-09-2022
+ *
+ */
+
+public class PurchaseExporter {
+    public static final String HEADER = "Quantity, Price, Total Spend, Product name, Store";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "purchase-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PurchaseExporter() {
+    }
+
+    /**
+     * Exports the customer's purchase history, oldest purchase first.
+     *
+     * @param customer - customer whose history is exported
+     * @param file     - file to export to, which is overwritten
+     * @return         - number of purchases written
+     * @throws IOException if the file could not be written
+     */
+    public static int export(Customer customer, File file) throws IOException {
+        ArrayList<Product> purchases = customer.getPastPurchases();
+        ArrayList<Integer> quantities = customer.getPastPurchaseQuantities();
+
+        // Purchases made while exporting are left for the next export
+        int count = Math.min(purchases.size(), quantities.size());
+        long start = System.nanoTime();
+
+        try (Writer writer = open(file);
+             Formatter formatter = new Formatter(writer)) {
+            writer.write(HEADER);
+            writer.write('\n');
+
+            for (int i = 0; i < count; i++) {
+                Product product = purchases.get(i);
+                int quantity = quantities.get(i);
+
+                formatter.format("%d,$%.2f, $%.2f, %s,%s\n", quantity, product.getPrice(),
+                                 quantity * product.getPrice(), product.getProdName(), product.getWhichStore());
+            }
+
+            if (formatter.ioException() != null) {
+                throw formatter.ioException();
+            }
+
+            writer.flush();
+        }
+
+        Metrics.EXPORT.recordSince(start);
+        return count;
+    }
+
+    /**
+     * Runs export() on a background thread. Nothing is printed from that thread, since it isn't
+     * running anyone's session; whoever started the export reports the result from the future.
+     *
+     * @param customer - customer whose history is exported
+     * @param file     - file to export to, which is overwritten
+     * @return         - completes with the number of purchases written, or exceptionally with an
+     *                   UncheckedIOException if the file could not be written
+     */
+    public static CompletableFuture<Integer> exportInBackground(Customer customer, File file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return export(customer, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, BACKGROUND);
+    }
+
+    private static Writer open(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file, false);
+
+        if (file.getName().endsWith(".gz")) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        return new BufferedWriter(new OutputStreamWriter(out), BUFFER_SIZE);
+    }
+}
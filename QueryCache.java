@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * QueryCache.java
+ *
+ * Remembers the results of recent queries (a sorted view of the marketplace or a search) so that
+ * running the same query again doesn't have to compute it again. Every result is saved along with
+ * the version of the data it was computed from, and is only used while the data is still at that
+ * version. Callers pass in a version that changes whenever anything the query depends on changes,
+ * so a result is never served after it has gone out of date, and results that don't depend on a
+ * change (such as a search, when only stock has changed) are kept.
+ *
+ * The cache holds at most maxEntries results and at most maxItems items across all of them, and
+ * when it is full the least recently used results are dropped first. Results are returned as
+ * lists that can't be modified, since they are shared by every session that runs the query.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-20-2022
+ *
+ */
+
+public class QueryCache<T> {
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    public static final int DEFAULT_MAX_ITEMS = 1_000_000;
+
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxItems;
+    private long items;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxEntries - most results kept at once
+     * @param maxItems   - most items kept at once, across every result
+     */
+    public QueryCache(int maxEntries, long maxItems) {
+        this.maxEntries = maxEntries;
+        this.maxItems = maxItems;
+    }
+
+    public QueryCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_ITEMS);
+    }
+
+    /**
+     * Returns the saved result of a query if it was computed at the given version, and otherwise
+     * computes and saves it. The result is computed without holding the cache's lock, so a slow
+     * query doesn't hold up other sessions.
+     *
+     * @param key     - the query, including anything (such as sort order) that changes its result
+     * @param version - current version of the data the query depends on
+     * @param query   - computes the result
+     * @return        - the result
+     */
+    public List<T> get(String key, long version, Supplier<? extends List<T>> query) {
+        synchronized (this) {
+            Entry<T> entry = entries.get(key);
+
+            if (entry != null && entry.version == version) {
+                hits.incrementAndGet();
+                return entry.result;
+            }
+        }
+
+        misses.incrementAndGet();
+        List<T> result = Collections.unmodifiableList(new ArrayList<>(query.get()));
+
+        synchronized (this) {
+            Entry<T> existing = entries.get(key);
+
+            // A result computed at a newer version while this one was running is kept instead
+            if (existing == null || existing.version <= version) {
+                put(key, new Entry<>(version, result));
+            }
+        }
+
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        items = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void put(String key, Entry<T> entry) {
+        Entry<T> replaced = entries.put(key, entry);
+
+        if (replaced != null) {
+            items -= replaced.result.size();
+        }
+        items += entry.result.size();
+
+        Iterator<Map.Entry<String, Entry<T>>> iterator = entries.entrySet().iterator();
+
+        while ((entries.size() > maxEntries || items > maxItems) && iterator.hasNext()) {
+            Map.Entry<String, Entry<T>> eldest = iterator.next();
+
+            items -= eldest.getValue().result.size();
+            iterator.remove();
+        }
+    }
+
+    private static class Entry<T> {
+        private final long version;
+        private final List<T> result;
+
+        private Entry(long version, List<T> result) {
+            this.version = version;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SalesAggregates.java
+ *
+ * Running totals of how many items each store has sold, both by product and by customer. The
+ * totals are counted from every customer's purchase history once, when the marketplace starts,
+ * and from then on each purchase is added as it is made, through
+ * MarketplaceServices.purchaseRecorded(), so reading them for the seller dashboard never goes
+ * through the marketplace's purchase history. A
+ * purchase that isn't reported that way (the cart checkout in ShoppingCartMenu doesn't report
+ * its lines yet) is only counted the next time the marketplace starts.
+ *
+ * Stores, products, and customers are all kept by their numeric ids (the store's code in the
+ * catalog's store dictionary, the product's catalog id, and the customer's user id), so adding a
+ * purchase is a few hash lookups on ints and two stores selling products with the same name
+ * never share sales.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-03-2022
+ *
+ */
+
+public final class SalesAggregates {
+    private final ConcurrentHashMap<Integer, StoreSales> salesByStore = new ConcurrentHashMap<>();
+    private final ProductCatalog catalog;
+    private final UserDirectory users;
+
+    /**
+     * @param catalog - catalog the product ids and store codes come from
+     * @param users   - directory the user ids come from
+     */
+    public SalesAggregates(ProductCatalog catalog, UserDirectory users) {
+        this.catalog = catalog;
+        this.users = users;
+    }
+
+    /**
+     * Counts a customer's whole purchase history. Only called once per customer, when the
+     * marketplace starts.
+     *
+     * @param customer - customer whose purchase history is counted
+     */
+    public void countHistory(Customer customer) {
+        ArrayList<Product> purchases = customer.getPastPurchases();
+        ArrayList<Integer> quantities = customer.getPastPurchaseQuantities();
+        int size = Math.min(purchases.size(), quantities.size());
+
+        for (int i = 0; i < size; i++) {
+            purchaseMade(customer, purchases.get(i), quantities.get(i));
+        }
+    }
+
+    /**
+     * Adds a single purchase to the totals.
+     *
+     * @param customer - customer who made the purchase
+     * @param product  - product that was purchased
+     * @param quantity - number purchased
+     * @return         - catalog id the purchase was counted under, or ProductCatalog.NOT_FOUND if
+     *                   the product isn't on the market
+     */
+    public int purchaseMade(Customer customer, Product product, int quantity) {
+        int productId = catalog.idOfPurchased(product);
+
+        record(catalog.getStores().encode(product.getWhichStore()), users.idOf(customer.getEmail()), productId,
+               quantity);
+        return productId;
+    }
+
+    private void record(int storeCode, int userId, int productId, int quantity) {
+        StoreSales storeSales = salesByStore.computeIfAbsent(storeCode, k -> new StoreSales());
+
+        // Products no longer on the market still count towards the store's customers
+        if (productId != ProductCatalog.NOT_FOUND) {
+            storeSales.unitsByProduct.merge(productId, quantity, Integer::sum);
+        }
+        storeSales.unitsByCustomer.merge(userId, quantity, Integer::sum);
+    }
+
+    /**
+     * @param storeName - name of the store
+     * @return          - the store's totals (empty if it hasn't sold anything)
+     */
+    public StoreSales getStoreSales(String storeName) {
+        StoreSales storeSales = salesByStore.get(catalog.getStores().codeOf(storeName));
+
+        return (storeSales == null ? new StoreSales() : storeSales);
+    }
+
+    /**
+     * Totals for a single store.
+     */
+    public static class StoreSales {
+        private final ConcurrentHashMap<Integer, Integer> unitsByProduct = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, Integer> unitsByCustomer = new ConcurrentHashMap<>();
+
+        /**
+         * @param productId - catalog id of one of the store's products
+         * @return          - number of that product sold
+         */
+        public int getProductSales(int productId) {
+            return unitsByProduct.getOrDefault(productId, 0);
+        }
+
+        /**
+         * @param userId - id of a customer
+         * @return       - number of items that customer has purchased from the store
+         */
+        public int getCustomerPurchases(int userId) {
+            return unitsByCustomer.getOrDefault(userId, 0);
+        }
+
+        /**
+         * @return - items purchased by each customer who has purchased from the store, by user id
+         */
+        public Map<Integer, Integer> getUnitsByCustomer() {
+            return unitsByCustomer;
+        }
+
+        /**
+         * @return - items sold by catalog id, for products that have sold at least once
+         */
+        public Map<Integer, Integer> getUnitsByProduct() {
+            return unitsByProduct;
+        }
+
+        /**
+         * @param users - directory the user ids come from
+         * @return      - items purchased by each customer who has purchased from the store, by email
+         */
+        public HashMap<String, Integer> getUnitsByEmail(UserDirectory users) {
+            HashMap<String, Integer> unitsByEmail = new HashMap<>();
+
+            for (Map.Entry<Integer, Integer> entry : unitsByCustomer.entrySet()) {
+                unitsByEmail.put(users.emailOf(entry.getKey()), entry.getValue());
+            }
+
+            return unitsByEmail;
+        }
+    }
+}
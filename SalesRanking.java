@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+
+/**
+ * SalesRanking.java
+ *
+ * Ranks totals (items purchased by customer, or sales by product) one page at a time. Rather than
+ * sorting every total, each page is found in a single pass using a heap that never holds more
+ * than one page of entries, so only the entries that are actually shown are kept and formatted.
+ *
+ * Pages are requested with a cursor, which is just the last entry of the previous page. The next
+ * page is made up of the entries that come after the cursor in the chosen order, so paging
+ * through the list doesn't require remembering or re-sorting anything in between.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-04-2022
+ *
+ */
+
+public class SalesRanking {
+    // Ties on name are broken by id, so two entries with the same name are never merged or skipped
+    public static final Comparator<Entry> HIGHEST_FIRST =
+            Comparator.comparingInt((Entry e) -> -e.getCount()).thenComparing(Entry::getName)
+                      .thenComparingInt(Entry::getId);
+    public static final Comparator<Entry> LOWEST_FIRST =
+            Comparator.comparingInt(Entry::getCount).thenComparing(Entry::getName)
+                      .thenComparingInt(Entry::getId);
+    public static final Comparator<Entry> BY_NAME =
+            Comparator.comparing(Entry::getName).thenComparingInt(Entry::getId);
+
+    private SalesRanking() {
+    }
+
+    /**
+     * Finds the next page of entries in the given order.
+     *
+     * @param totals   - totals being ranked, by name
+     * @param order    - HIGHEST_FIRST, LOWEST_FIRST, or BY_NAME
+     * @param pageSize - maximum number of entries in the page
+     * @param cursor   - last entry of the previous page, or null for the first page
+     * @return         - the page, in order (empty once the end of the list has been passed)
+     */
+    public static ArrayList<Entry> page(Map<String, Integer> totals, Comparator<Entry> order,
+                                        int pageSize, Entry cursor) {
+        ArrayList<Entry> entries = new ArrayList<>(totals.size());
+
+        for (Map.Entry<String, Integer> total : totals.entrySet()) {
+            entries.add(new Entry(total.getKey(), total.getValue()));
+        }
+
+        return page(entries, order, pageSize, cursor);
+    }
+
+    /**
+     * Finds the next page of entries in the given order, for totals kept by id (such as sales by
+     * catalog id), where two ids may share a name.
+     *
+     * @param totals   - totals being ranked, by id
+     * @param names    - gives the name shown for each id
+     * @param order    - HIGHEST_FIRST, LOWEST_FIRST, or BY_NAME
+     * @param pageSize - maximum number of entries in the page
+     * @param cursor   - last entry of the previous page, or null for the first page
+     * @return         - the page, in order (empty once the end of the list has been passed)
+     */
+    public static ArrayList<Entry> pageById(Map<Integer, Integer> totals, IntFunction<String> names,
+                                            Comparator<Entry> order, int pageSize, Entry cursor) {
+        ArrayList<Entry> entries = new ArrayList<>(totals.size());
+
+        for (Map.Entry<Integer, Integer> total : totals.entrySet()) {
+            entries.add(new Entry(names.apply(total.getKey()), total.getValue(), total.getKey()));
+        }
+
+        return page(entries, order, pageSize, cursor);
+    }
+
+    private static ArrayList<Entry> page(ArrayList<Entry> entries, Comparator<Entry> order, int pageSize,
+                                         Entry cursor) {
+        // Heap is ordered backwards so that the entry that would be shown last is removed first
+        PriorityQueue<Entry> heap = new PriorityQueue<>(pageSize + 1, order.reversed());
+
+        for (Entry entry : entries) {
+            if (cursor != null && order.compare(entry, cursor) <= 0) {
+                continue;
+            }
+
+            if (heap.size() < pageSize) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        ArrayList<Entry> page = new ArrayList<>(heap.size());
+
+        while (!heap.isEmpty()) {
+            page.add(heap.poll());
+        }
+
+        // Entries came out of the heap last-to-first
+        for (int i = 0, j = page.size() - 1; i < j; i++, j--) {
+            Entry temp = page.get(i);
+            page.set(i, page.get(j));
+            page.set(j, temp);
+        }
+
+        return page;
+    }
+
+    /**
+     * Shortcut for the first page, i.e. the top (or bottom) k entries.
+     *
+     * @param totals - totals being ranked, by name
+     * @param order  - HIGHEST_FIRST, LOWEST_FIRST, or BY_NAME
+     * @param k      - number of entries
+     * @return       - the first k entries in order
+     */
+    public static ArrayList<Entry> top(Map<String, Integer> totals, Comparator<Entry> order, int k) {
+        return page(totals, order, k, null);
+    }
+
+    /**
+     * A single ranked total. Also used as the cursor for the following page.
+     */
+    public static class Entry {
+        private final String name;
+        private final int count;
+        private final int id;
+
+        public Entry(String name, int count) {
+            this(name, count, 0);
+        }
+
+        public Entry(String name, int count, int id) {
+            this.name = name;
+            this.count = count;
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
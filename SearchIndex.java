@@ -0,0 +1,349 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+/**
+ * SearchIndex.java
+ *
+ * An inverted index used to search the marketplace without checking every product. Every field
+ * of an item (for products: name, description, store, material, and colour) is lowercased and
+ * broken into all of its substrings up to GRAM_LENGTH characters long, and each of those
+ * substrings maps to the sorted list of items that contain it.
+ *
+ * A search that is GRAM_LENGTH characters or shorter is answered directly by its list. A longer
+ * search intersects the lists of each of its GRAM_LENGTH-character pieces, starting with the
+ * shortest, and then only the few items left over are checked with contains(). Either way, the
+ * work done depends on how many items match rather than how many items are in the index.
+ *
+ * Items are numbered in the order they were added and keep their number when they are edited, so
+ * results always come back in the order the items were added. Removing an item leaves a gap in
+ * the numbers, and once more than half of the numbers are gaps the items left are renumbered (in
+ * the same order), so the index takes up space for the items in it rather than for every item
+ * that has ever been added.
+ *
+ * The index only knows about the changes it is told about. For the marketplace, sellers' edits
+ * aren't reported to it, so MarketplaceServices.checkIndexes() finds them by going over every
+ * product at most once every INDEX_CHECK_INTERVAL_MILLIS. Searching itself costs time in
+ * proportion to the matches, but keeping the index correct costs that periodic pass over the
+ * whole catalog.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-02-2022
+ *
+ * @param <T> - type of item being indexed
+ */
+
+public class SearchIndex<T> {
+    public static final int GRAM_LENGTH = 3;
+
+    // Below this many numbers, gaps aren't worth renumbering for
+    private static final int MIN_COMPACT_SIZE = 64;
+
+    private final ArrayList<T> items = new ArrayList<>();
+    private final ArrayList<String[]> itemFields = new ArrayList<>();
+    private final IdentityHashMap<T, Integer> ids = new IdentityHashMap<>();
+    private final HashMap<String, IntList> postings = new HashMap<>();
+    private int size;
+
+    /**
+     * Adds an item to the index, or re-indexes it if it is already present.
+     *
+     * @param item   - item to be added
+     * @param fields - text the item should be searchable by
+     */
+    public synchronized void add(T item, String... fields) {
+        Integer id = ids.get(item);
+
+        if (id != null) {
+            update(item, fields);
+            return;
+        }
+
+        id = items.size();
+        ids.put(item, id);
+        items.add(item);
+        itemFields.add(normalize(fields));
+        size++;
+
+        for (String gram : grams(itemFields.get(id))) {
+            postings.computeIfAbsent(gram, k -> new IntList()).insertSorted(id);
+        }
+    }
+
+    /**
+     * Re-indexes an item after its fields have been edited. The item keeps its original position
+     * in search results.
+     *
+     * @param item   - item that was edited
+     * @param fields - the item's new text
+     */
+    public synchronized void update(T item, String... fields) {
+        Integer id = ids.get(item);
+
+        if (id == null) {
+            add(item, fields);
+            return;
+        }
+
+        String[] oldFields = itemFields.get(id);
+        String[] newFields = normalize(fields);
+        HashSet<String> oldGrams = grams(oldFields);
+        HashSet<String> newGrams = grams(newFields);
+
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, id);
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, k -> new IntList()).insertSorted(id);
+            }
+        }
+
+        itemFields.set(id, newFields);
+    }
+
+    /**
+     * Removes an item from the index, if it is present.
+     *
+     * @param item - item to be removed
+     */
+    public synchronized void remove(T item) {
+        Integer id = ids.remove(item);
+
+        if (id == null) {
+            return;
+        }
+
+        for (String gram : grams(itemFields.get(id))) {
+            removePosting(gram, id);
+        }
+
+        items.set(id, null);
+        itemFields.set(id, null);
+        size--;
+
+        if (items.size() >= MIN_COMPACT_SIZE && size < items.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the items left in the index from 0, keeping them in the same order. Since the
+     * order is kept, every list of ids is still sorted after its ids are replaced.
+     */
+    private void compact() {
+        int[] newIds = new int[items.size()];
+        int next = 0;
+
+        for (int id = 0; id < items.size(); id++) {
+            T item = items.get(id);
+
+            if (item != null) {
+                newIds[id] = next;
+                items.set(next, item);
+                itemFields.set(next, itemFields.get(id));
+                ids.put(item, next);
+                next++;
+            }
+        }
+
+        items.subList(next, items.size()).clear();
+        itemFields.subList(next, itemFields.size()).clear();
+        items.trimToSize();
+        itemFields.trimToSize();
+
+        for (IntList list : postings.values()) {
+            list.renumber(newIds);
+        }
+    }
+
+    /**
+     * Finds every item with a field containing the search, ignoring case and surrounding
+     * whitespace. An empty search matches everything.
+     *
+     * @param search - text entered by the user
+     * @return       - matching items, in the order they were added
+     */
+    public synchronized ArrayList<T> search(String search) {
+        String query = search.toLowerCase().trim();
+        ArrayList<T> results = new ArrayList<>();
+
+        if (query.isEmpty()) {
+            for (T item : items) {
+                if (item != null) {
+                    results.add(item);
+                }
+            }
+            return results;
+        }
+
+        if (query.length() <= GRAM_LENGTH) {
+            IntList list = postings.get(query);
+
+            if (list != null) {
+                for (int i = 0; i < list.size; i++) {
+                    results.add(items.get(list.values[i]));
+                }
+            }
+            return results;
+        }
+
+        IntList[] lists = new IntList[query.length() - GRAM_LENGTH + 1];
+
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(query.substring(i, i + GRAM_LENGTH));
+
+            if (lists[i] == null) {
+                return results;
+            }
+        }
+
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        IntList candidates = lists[0];
+
+        for (int i = 0; i < candidates.size; i++) {
+            int id = candidates.values[i];
+            boolean inAll = true;
+
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = lists[j].contains(id);
+            }
+
+            if (inAll && matches(itemFields.get(id), query)) {
+                results.add(items.get(id));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @return - number of items currently in the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void removePosting(String gram, int id) {
+        IntList list = postings.get(gram);
+
+        if (list != null) {
+            list.removeSorted(id);
+
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static boolean matches(String[] fields, String query) {
+        for (String field : fields) {
+            if (field.contains(query)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String[] normalize(String[] fields) {
+        String[] normalized = new String[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = (fields[i] == null ? "" : fields[i].toLowerCase());
+        }
+
+        return normalized;
+    }
+
+    /**
+     * Every distinct substring of one to GRAM_LENGTH characters within any single field. Pieces
+     * never span two fields, since the original search checked each field separately.
+     */
+    private static HashSet<String> grams(String[] fields) {
+        HashSet<String> grams = new HashSet<>();
+
+        for (String field : fields) {
+            for (int start = 0; start < field.length(); start++) {
+                int maxEnd = Math.min(field.length(), start + GRAM_LENGTH);
+
+                for (int end = start + 1; end <= maxEnd; end++) {
+                    grams.add(field.substring(start, end));
+                }
+            }
+        }
+
+        return grams;
+    }
+
+    /**
+     * Sorted, growable list of item ids.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private int indexOf(int value) {
+            return Arrays.binarySearch(values, 0, size, value);
+        }
+
+        private boolean contains(int value) {
+            return indexOf(value) >= 0;
+        }
+
+        private void insertSorted(int value) {
+            if (size > 0 && values[size - 1] < value) {
+                append(value);
+                return;
+            }
+
+            int index = indexOf(value);
+
+            if (index >= 0) {
+                return;
+            }
+
+            index = -index - 1;
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        private void append(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        private void renumber(int[] newIds) {
+            for (int i = 0; i < size; i++) {
+                values[i] = newIds[values[i]];
+            }
+        }
+
+        private void removeSorted(int value) {
+            int index = indexOf(value);
+
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -1,5 +1,10 @@
+import java.io.PrintStream;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
 
 /**
  * SellerDashboard.java
@@ -7,8 +12,9 @@ import java.util.ArrayList;
  * This class provides the dashboard functionality for sellers, linked to a particular store that
  * the seller has selected. It first shows items purchased from the given store by customer, and
  * then sales by product. Both lists can also be sorted low to high or high to low, just like the
- * customer dashboard. In general, this class is structured extremely similarly to the customer
- * dashboard.
+ * customer dashboard. Only customers who have purchased from the store are listed, and both lists
+ * are shown a page at a time. In general, this class is structured extremely similarly to the
+ * customer dashboard.
  * 
  * @author Sahithi Gokavarapu
  * @author Dhruv Jain
@@ -21,16 +27,29 @@ import java.util.ArrayList;
  */
 
 public class SellerDashboard {
+    public static final int PAGE_SIZE = 10;
+
     private Store store;
     private Marketplace marketplace;
+    private PrintStream out;
 
     /**
      * @param store       - store statistics are being pulled for
      * @param marketplace - used to obtain all customers, necessary for first part of dashboard
      */
     public SellerDashboard(Store store, Marketplace marketplace) {
+        this(store, marketplace, System.out);
+    }
+
+    /**
+     * @param store       - store statistics are being pulled for
+     * @param marketplace - used to obtain all customers, necessary for first part of dashboard
+     * @param out         - where the dashboard prints, such as a MarketServer session
+     */
+    public SellerDashboard(Store store, Marketplace marketplace, PrintStream out) {
         this.store = store;
         this.marketplace = marketplace;
+        this.out = out;
     }
 
     /**
@@ -47,166 +66,125 @@ public class SellerDashboard {
     }
 
     /**
-     * This method uses an insertion sorting algorithm to sort the lists being displayed to the
-     * user, if they so choose. It also uses to methods to obtain the arrays used to sort the
-     * customers/products in the correct order. The arrays also contain the values that end up
-     * being displayed in the end.
+     * This method sets up the order the lists being displayed to the user will be shown in, if
+     * they chose one, and then shows the first page of each. Unsorted lists are shown in
+     * alphabetical order. The ranking only ever looks at customers who have purchased from this
+     * store, and each page is found with SalesRanking rather than by sorting the whole list.
      * 
      * @param scan
      * @param option - how/if the dashboard will be sorted
      */
     private void dashboardSort(Scanner scan, int option) {
-        String name = store.getName();
-
-        ArrayList<Customer> allCustomers = marketplace.getAllCustomers();
-        ArrayList<Product> products = store.getProducts();
-
-        int[] productsPerCustomer = productsPerCustomer();
-        int[] productSales = salesPerProduct();
-
-        ArrayList<String> customerList = new ArrayList<>();
-        ArrayList<String> productList = new ArrayList<>();
-
-        if (option == 0) {
-            for (int i = 0; i < allCustomers.size(); i++) {
-                customerList.add(String.format("- Customer: %s | Items Purchased From %s: %d",
-                                 allCustomers.get(i).getEmail(), name, productsPerCustomer[i]));
-            }
-
-            for (int i = 0; i < products.size(); i++) {
-                productList.add(String.format("- Product: %s | Sales: %d",
-                                products.get(i).getProdName(), productSales[i]));
-            }
-
-            viewDashboard(scan, customerList, productList);
-
-            return;
+        Comparator<SalesRanking.Entry> order;
+
+        switch (option) {
+            case 1:
+                order = SalesRanking.HIGHEST_FIRST;
+                break;
+            case 2:
+                order = SalesRanking.LOWEST_FIRST;
+                break;
+            default:
+                order = SalesRanking.BY_NAME;
         }
 
-        boolean lowToHigh = (option == 1 ? false : true);
+        long start = System.nanoTime();
 
-        customerList.add(String.format("- Customer: %s | Items Purchased From %s: %d",
-                                       allCustomers.get(0).getEmail(), name, productsPerCustomer[0]));
-        ArrayList<Integer> numList = new ArrayList<>();
-        numList.add(productsPerCustomer[0]);
+        Map<String, Integer> customerTotals = getStoreSales().getUnitsByEmail(
+                MarketplaceServices.of(marketplace).getUserDirectory());
+        ArrayList<Product> products = store.getProducts();
+        IntFunction<String> productNames = index -> products.get(index).getProdName();
+        Map<Integer, Integer> productTotals = salesPerProduct(products);
 
-        for (int i = 1; i < allCustomers.size(); i++) {
-            Customer customer = allCustomers.get(i);
+        ArrayList<SalesRanking.Entry> customerPage = SalesRanking.page(customerTotals, order, PAGE_SIZE, null);
+        ArrayList<SalesRanking.Entry> productPage = SalesRanking.pageById(productTotals, productNames, order,
+                                                                          PAGE_SIZE, null);
 
-            for (int j = 0; j < i; j++) {
-                if ((productsPerCustomer[i] > numList.get(j)) ^ lowToHigh) {
-                    customerList.add(j, String.format("- Customer: %s | Items Purchased From %s: %d",
-                                     customer.getEmail(), name, productsPerCustomer[i]));
-                    numList.add(j, productsPerCustomer[i]);
-                    break;
-                } else if (j == i - 1) {
-                    customerList.add(String.format("- Customer: %s | Items Purchased From %s: %d",
-                                     customer.getEmail(), name, productsPerCustomer[i]));
-                    numList.add(productsPerCustomer[i]);
-                }
-            }
-        }
+        Metrics.SELLER_DASHBOARD.recordSince(start);
 
-        productList.add(String.format("- Product: %s | Sales: %d",
-                                products.get(0).getProdName(), productSales[0]));
-        numList = new ArrayList<>();
-        numList.add(productSales[0]);
+        while (true) {
+            int input = viewDashboard(scan, customerPage, productPage);
 
-        for (int i = 1; i < products.size(); i++) {
-            Product product = products.get(i);
-
-            for (int j = 0; j < i; j++) {
-                if ((productSales[i] > numList.get(j)) ^ lowToHigh) {
-                    productList.add(j, String.format("- Product: %s | Sales: %d",
-                                    product.getProdName(), productSales[i]));
-                    numList.add(j, productSales[i]);
+            switch (input) {
+                case 1:
+                    customerPage = SalesRanking.page(customerTotals, order, PAGE_SIZE, lastOf(customerPage));
+                    break;
+                case 2:
+                    productPage = SalesRanking.pageById(productTotals, productNames, order, PAGE_SIZE,
+                                                        lastOf(productPage));
                     break;
-                } else if (j == i - 1) {
-                    productList.add(String.format("- Product: %s | Sales: %d",
-                                    product.getProdName(), productSales[i]));
-                    numList.add(productSales[i]);
-                }
+                case 3:
+                    return;
             }
         }
-
-        viewDashboard(scan, customerList, productList);
     }
 
     /**
-     * This method displays the information as organized by the above method.
+     * This method displays the current page of each list, as organized by the above method.
      * 
      * @param scan
-     * @param customerList - List of information to display for customers, already sorted (if sorted wass selected)
-     * @param productList  - "" for products, ""
+     * @param customerPage - Page of customers to display, already in order
+     * @param productPage  - "" for products, ""
+     * @return             - what the user selected: (1) more customers, (2) more products, (3) back
      */
-    private void viewDashboard(Scanner scan, ArrayList<String> customerList, ArrayList<String> productList) {
-        System.out.println("----------");
-        System.out.println("SELLER DASHBOARD");
-        System.out.printf("For your store: %s\n", store.getName());
-
-        System.out.println("Items Purchased by Customer");
-        
-        for (int i = 0; i < customerList.size(); i++) {
-            System.out.println(customerList.get(i));
+    private int viewDashboard(Scanner scan, ArrayList<SalesRanking.Entry> customerPage,
+                              ArrayList<SalesRanking.Entry> productPage) {
+        out.println("----------");
+        out.println("SELLER DASHBOARD");
+        out.printf("For your store: %s\n", store.getName());
+
+        out.println("Items Purchased by Customer");
+
+        if (customerPage.isEmpty()) {
+            out.println("- No more customers to show.");
         }
+        for (SalesRanking.Entry entry : customerPage) {
+            out.printf("- Customer: %s | Items Purchased From %s: %d\n",
+                              entry.getName(), store.getName(), entry.getCount());
+        }
+
+        out.println("Sales by Product");
 
-        System.out.println("Sales by Product");
-    
-        for (int i = 0; i < productList.size(); i++) {
-            System.out.println(productList.get(i));
+        if (productPage.isEmpty()) {
+            out.println("- No more products to show.");
+        }
+        for (SalesRanking.Entry entry : productPage) {
+            out.printf("- Product: %s | Sales: %d\n", entry.getName(), entry.getCount());
         }
 
-        MenuHelper.getInput(scan, "1 - Back", 1);
+        return MenuHelper.getInput(scan, "1 - More Customers\n2 - More Products\n3 - Back", 3);
+    }
+
+    /**
+     * @param page - page of a list
+     * @return     - cursor for the page after it; when the page is empty, the list starts over
+     */
+    private static SalesRanking.Entry lastOf(ArrayList<SalesRanking.Entry> page) {
+        return (page.isEmpty() ? null : page.get(page.size() - 1));
     }
 
     /**
-     * Obtains array of purchases from this store by customer, with indexes matching indexes from
-     * allCustomers.
+     * Obtains sales by product for every one of the store's products, including those that have
+     * not sold yet. The totals are read from the marketplace's sales aggregates by looking up
+     * each product's catalog id.
      * 
-     * @return - array described above
+     * @param products - the store's products
+     * @return         - sales by index in the store's products, so that every product gets its own
+     *                   row even if two of them share a name
      */
-    private int[] salesPerProduct() {
-        ArrayList<Product> products = store.getProducts();
-        ArrayList<Customer> allCustomers = marketplace.getAllCustomers();
-        int[] productSales = new int[products.size()];
+    private Map<Integer, Integer> salesPerProduct(ArrayList<Product> products) {
+        ProductCatalog catalog = MarketplaceServices.of(marketplace).getCatalog();
+        SalesAggregates.StoreSales storeSales = getStoreSales();
+        LinkedHashMap<Integer, Integer> productSales = new LinkedHashMap<>();
 
         for (int i = 0; i < products.size(); i++) {
-            for (Customer c : allCustomers) {
-                ArrayList<Product> purchases = c.getPastPurchases();
-                ArrayList<Integer> quantities = c.getPastPurchaseQuantities();
-
-                for (int j = 0; j < purchases.size(); j++) {
-                    if (products.get(i).getProdName().equals(purchases.get(j).getProdName())) {
-                        productSales[i] += quantities.get(j);
-                    }
-                }
-            }
+            productSales.put(i, storeSales.getProductSales(catalog.idOf(products.get(i))));
         }
 
         return productSales;
     }
 
-    /**
-     * Returns sales by product, with indexes matching indexes from the particular store's
-     * "products" array.
-     * 
-     * @return - array described above
-     */
-    private int[] productsPerCustomer() {
-        ArrayList<Customer> allCustomers = marketplace.getAllCustomers();
-        int[] productsPerCustomer = new int[allCustomers.size()];
-        
-        for (int i = 0; i < allCustomers.size(); i++) {
-            ArrayList<Product> purchases = allCustomers.get(i).getPastPurchases();
-            ArrayList<Integer> quantities = allCustomers.get(i).getPastPurchaseQuantities();
-            
-            for (int j = 0; j < purchases.size(); j++) {
-                if (store.getName().equals(purchases.get(j).getWhichStore())) {
-                    productsPerCustomer[i] += quantities.get(j);
-                }
-            }
-        }
-        
-        return productsPerCustomer;
-    }    
+    private SalesAggregates.StoreSales getStoreSales() {
+        return MarketplaceServices.of(marketplace).getSalesAggregates().getStoreSales(store.getName());
+    }
 }
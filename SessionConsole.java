@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * SessionConsole.java
+ *
+ * The menus in this package are given the PrintStream to print to, but some of the classes
+ * they hand off to (MenuHelper, ShoppingCartMenu, CustomerDashboard, and Product's reviews)
+ * print with System.out, which is shared by the whole program. To let many sessions run in one
+ * program (see MarketServer), System.out is replaced with a stream that sends whatever a thread
+ * prints to the session that thread is running. Each session has its own
+ * PrintStream, and the shared stream passes every call straight to it without taking a lock of
+ * its own, so a session whose client has stopped reading only ever blocks itself. A thread that
+ * isn't bound to a session still prints to the real console.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-11-2022
+ *
+ */
+
+public class SessionConsole {
+    private static final ThreadLocal<PrintStream> SESSION_OUTPUT = new ThreadLocal<>();
+    private static PrintStream console;
+
+    private SessionConsole() {
+    }
+
+    /**
+     * Replaces System.out with the routing stream. Calling this more than once has no effect.
+     */
+    public static synchronized void install() {
+        if (console != null) {
+            return;
+        }
+
+        console = System.out;
+        System.setOut(new RoutingPrintStream());
+    }
+
+    /**
+     * Sends everything the current thread prints to the given stream until unbind() is called.
+     *
+     * @param out - output of the session the current thread is running, used only by that session
+     */
+    public static void bind(PrintStream out) {
+        SESSION_OUTPUT.set(out);
+    }
+
+    public static void unbind() {
+        SESSION_OUTPUT.remove();
+    }
+
+    private static PrintStream target() {
+        PrintStream out = SESSION_OUTPUT.get();
+        return (out != null ? out : console);
+    }
+
+    /**
+     * Overrides every public method of PrintStream, since the ones it inherits would lock this
+     * stream, which every session shares.
+     */
+    private static class RoutingPrintStream extends PrintStream {
+        private RoutingPrintStream() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void writeBytes(byte[] b) {
+            target().writeBytes(b);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            target().close();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            target().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            target().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            target().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            target().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            target().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            target().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            target().append(c);
+            return this;
+        }
+    }
+}
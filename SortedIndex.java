@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * SortedIndex.java
+ *
+ * Keeps items ordered by a numeric key (for products: price or quantity remaining) so that the
+ * marketplace can be listed low to high or high to low without sorting it every time. The key of
+ * each item is read when it is added and stored alongside it, and refresh() must be called after
+ * anything that changes an item's key so it can be moved to its new position. Items with the
+ * same key are listed in the order they were added (or the reverse, when listed high to low).
+ *
+ * Listing the items in order never sorts them, but the index is only right if it is told about
+ * every change. For the marketplace, a seller changing a price or a quantity isn't reported to
+ * it, so MarketplaceServices.checkIndexes() calls refreshChanged() (and re-adds edited products)
+ * at most once every INDEX_CHECK_INTERVAL_MILLIS. That call reads the key of every item, so
+ * keeping the index correct costs a pass over the whole catalog each time it runs, and until it
+ * runs a view can show a product in its old position.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-03-2022
+ *
+ * @param <T> - type of item being ordered
+ */
+
+public class SortedIndex<T> {
+    private final ToDoubleFunction<T> keyFunction;
+    private final TreeSet<Entry<T>> ordered = new TreeSet<>();
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+    private long nextSequence;
+
+    /**
+     * @param keyFunction - obtains the key an item is ordered by
+     */
+    public SortedIndex(ToDoubleFunction<T> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Adds an item to the index, or moves it if it is already present.
+     *
+     * @param item - item to be added
+     */
+    public synchronized void add(T item) {
+        Entry<T> entry = entries.get(item);
+
+        if (entry != null) {
+            ordered.remove(entry);
+        } else {
+            entry = new Entry<>(item, nextSequence++);
+            entries.put(item, entry);
+        }
+
+        entry.key = keyFunction.applyAsDouble(item);
+        ordered.add(entry);
+    }
+
+    /**
+     * Moves an item to its correct position after its key has changed.
+     *
+     * @param item - item whose key changed
+     */
+    public synchronized void refresh(T item) {
+        add(item);
+    }
+
+    /**
+     * Moves every item whose key has changed since it was added or refreshed, for when keys may
+     * have been changed without refresh() being called. Every item's key is read, so this takes
+     * time in proportion to the size of the index.
+     *
+     * @return - number of items that were moved
+     */
+    public synchronized int refreshChanged() {
+        ArrayList<Entry<T>> changed = new ArrayList<>();
+
+        for (Entry<T> entry : entries.values()) {
+            if (entry.key != keyFunction.applyAsDouble(entry.item)) {
+                changed.add(entry);
+            }
+        }
+
+        for (Entry<T> entry : changed) {
+            ordered.remove(entry);
+            entry.key = keyFunction.applyAsDouble(entry.item);
+            ordered.add(entry);
+        }
+
+        return changed.size();
+    }
+
+    /**
+     * @param item - item to be removed
+     */
+    public synchronized void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+
+        if (entry != null) {
+            ordered.remove(entry);
+        }
+    }
+
+    /**
+     * @param lowToHigh - true to list the smallest key first
+     * @return          - every item in the index, in order
+     */
+    public synchronized ArrayList<T> inOrder(boolean lowToHigh) {
+        ArrayList<T> items = new ArrayList<>(ordered.size());
+        Iterator<Entry<T>> it = (lowToHigh ? ordered.iterator() : ordered.descendingIterator());
+
+        while (it.hasNext()) {
+            items.add(it.next().item);
+        }
+
+        return items;
+    }
+
+    /**
+     * @return - number of items in the index
+     */
+    public synchronized int size() {
+        return ordered.size();
+    }
+
+    private static class Entry<T> implements Comparable<Entry<T>> {
+        private final T item;
+        private final long sequence;
+        private double key;
+
+        private Entry(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            int result = Double.compare(key, other.key);
+
+            return (result != 0 ? result : Long.compare(sequence, other.sequence));
+        }
+    }
+}
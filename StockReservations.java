@@ -0,0 +1,367 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StockReservations.java
+ *
+ * Makes sure two customers can never buy the same units of a product. Every check is made against
+ * the product's live stock (getStockRemaining()) minus whatever is currently reserved, while
+ * holding that product's own lock, and the units are bought with buyAmount() under the same
+ * lock. Nothing about the stock is copied or cached, so stock taken by code that doesn't go
+ * through this class is still seen. Purchases of different products never wait on each other,
+ * and there is no lock on the Marketplace.
+ *
+ * Purchases that happen right away (Buy Now, or checking out a cart) go through buy() and
+ * buyAll(), which check and buy in one step. Units can also be held for a while with reserve()
+ * and reserveAll(). A reservation is either committed, at which point the units are bought, or
+ * released, which returns them. If neither happens before the reservation times out, it is
+ * released automatically. Whenever several products are bought or committed together, all of
+ * their locks are taken first (always in the same order, so two checkouts can't deadlock), and
+ * either every one of them is bought or none are.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-06-2022
+ *
+ */
+
+public class StockReservations {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    private static final int PENDING = 0;
+    private static final int COMMITTED = 1;
+    private static final int RELEASED = 2;
+
+    // Order in which products bought together are locked. Two products with the same hash could be
+    // locked in either order, so when that happens tieLock is taken first
+    private static final Comparator<Product> LOCK_ORDER = Comparator.comparingInt(System::identityHashCode);
+
+    private final ConcurrentHashMap<Product, Slot> slots = new ConcurrentHashMap<>();
+    private final Object tieLock = new Object();
+    private final ScheduledThreadPoolExecutor expirer = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "reservation-expirer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockReservations() {
+        // Committed reservations shouldn't sit in the queue until they would have expired
+        expirer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Buys a quantity of a single product right away, if enough of it is available.
+     *
+     * @param product  - product being bought
+     * @param quantity - number of units
+     * @return         - false if there weren't enough units available, in which case nothing is bought
+     */
+    public boolean buy(Product product, int quantity) {
+        return buy(product, quantity, null);
+    }
+
+    /**
+     * Buys a quantity of a single product right away, if enough of it is available, and records
+     * the purchase while still holding the product's lock, so that the product's purchase
+     * history is changed by one purchase at a time.
+     *
+     * @param product  - product being bought
+     * @param quantity - number of units
+     * @param onBought - run after the units are bought, before the lock is released, or null
+     * @return         - false if there weren't enough units available, in which case nothing is
+     *                   bought and onBought isn't run
+     */
+    public boolean buy(Product product, int quantity, Runnable onBought) {
+        synchronized (product) {
+            if (available(product) < quantity) {
+                return false;
+            }
+
+            product.buyAmount(quantity);
+
+            if (onBought != null) {
+                onBought.run();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Buys several products at once, such as a whole shopping cart. If any of them doesn't have
+     * enough units available, nothing is bought.
+     *
+     * @param quantities - number of units to buy of each product
+     * @return           - false if any product didn't have enough units
+     */
+    public boolean buyAll(Map<Product, Integer> quantities) {
+        Product[] products = quantities.keySet().toArray(new Product[0]);
+        int[] amounts = new int[products.length];
+
+        for (int i = 0; i < products.length; i++) {
+            amounts[i] = quantities.get(products[i]);
+        }
+
+        return buyLocked(products, amounts, null);
+    }
+
+    /**
+     * Reserves a quantity of a single product.
+     *
+     * @param product       - product being reserved
+     * @param quantity      - number of units
+     * @param timeoutMillis - how long the reservation is held before being released automatically
+     * @return              - the reservation, or null if there aren't enough units available
+     */
+    public Reservation reserve(Product product, int quantity, long timeoutMillis) {
+        if (!take(product, quantity)) {
+            return null;
+        }
+
+        Reservation reservation = new Reservation();
+
+        reservation.add(product, quantity);
+        scheduleExpiry(reservation, timeoutMillis);
+        return reservation;
+    }
+
+    /**
+     * Reserves several products at once. If any of them doesn't have enough units available,
+     * nothing is reserved.
+     *
+     * @param quantities    - number of units to reserve of each product
+     * @param timeoutMillis - how long the reservation is held before being released automatically
+     * @return              - the reservation, or null if any product didn't have enough units
+     */
+    public Reservation reserveAll(Map<Product, Integer> quantities, long timeoutMillis) {
+        Reservation reservation = new Reservation();
+
+        for (Map.Entry<Product, Integer> line : quantities.entrySet()) {
+            if (!take(line.getKey(), line.getValue())) {
+                giveBack(reservation);
+                return null;
+            }
+
+            reservation.add(line.getKey(), line.getValue());
+        }
+
+        scheduleExpiry(reservation, timeoutMillis);
+        return reservation;
+    }
+
+    /**
+     * Buys the reserved units from each product. The stock is checked again first, since it may
+     * have been taken by code that doesn't go through reservations, and if any product no longer
+     * has the reserved units the whole reservation is released instead.
+     *
+     * @param reservation - reservation being committed
+     * @return            - false if nothing was bought: the reservation had already been released
+     *                      or committed, or the stock was no longer there
+     */
+    public boolean commit(Reservation reservation) {
+        if (!reservation.state.compareAndSet(PENDING, COMMITTED)) {
+            return false;
+        }
+
+        reservation.cancelExpiry();
+
+        Product[] products = reservation.products.toArray(new Product[0]);
+        int[] amounts = new int[products.length];
+
+        for (int i = 0; i < products.length; i++) {
+            amounts[i] = reservation.quantities.get(i);
+        }
+
+        if (!buyLocked(products, amounts, reservation)) {
+            giveBack(reservation);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the reserved units so that others can buy them.
+     *
+     * @param reservation - reservation being released
+     * @return            - false if the reservation had already been released or committed
+     */
+    public boolean release(Reservation reservation) {
+        if (!reservation.state.compareAndSet(PENDING, RELEASED)) {
+            return false;
+        }
+
+        reservation.cancelExpiry();
+        giveBack(reservation);
+        return true;
+    }
+
+    /**
+     * @param product - product being checked
+     * @return        - number of units that can currently be bought or reserved
+     */
+    public int getAvailable(Product product) {
+        synchronized (product) {
+            return available(product);
+        }
+    }
+
+    /**
+     * @param product - product that was removed from the market
+     */
+    public void forget(Product product) {
+        synchronized (product) {
+            Slot slot = slots.get(product);
+
+            // Outstanding reservations still have to be given back or committed against it
+            if (slot != null && slot.reserved == 0) {
+                slots.remove(product);
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the product's lock, so the slot can't be forgotten in between.
+     */
+    private Slot slot(Product product) {
+        return slots.computeIfAbsent(product, p -> new Slot());
+    }
+
+    /**
+     * Must be called while holding the product's lock.
+     */
+    private int available(Product product) {
+        Slot slot = slots.get(product);
+
+        return product.getStockRemaining() - (slot == null ? 0 : slot.reserved);
+    }
+
+    private boolean take(Product product, int quantity) {
+        synchronized (product) {
+            if (available(product) < quantity) {
+                return false;
+            }
+
+            slot(product).reserved += quantity;
+            return true;
+        }
+    }
+
+    private void giveBack(Reservation reservation) {
+        for (int i = 0; i < reservation.products.size(); i++) {
+            Product product = reservation.products.get(i);
+
+            synchronized (product) {
+                slot(product).reserved -= reservation.quantities.get(i);
+            }
+        }
+    }
+
+    /**
+     * Takes the lock of every product, then buys all of them or none of them.
+     *
+     * @param reservation - reservation the units were held under, or null if they weren't reserved
+     */
+    private boolean buyLocked(Product[] products, int[] amounts, Reservation reservation) {
+        Integer[] order = new Integer[products.length];
+        boolean tied = false;
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> LOCK_ORDER.compare(products[a], products[b]));
+
+        for (int i = 1; i < order.length; i++) {
+            tied |= LOCK_ORDER.compare(products[order[i - 1]], products[order[i]]) == 0;
+        }
+
+        if (!tied) {
+            return buyLocked(products, amounts, reservation, order, 0);
+        }
+
+        synchronized (tieLock) {
+            return buyLocked(products, amounts, reservation, order, 0);
+        }
+    }
+
+    private boolean buyLocked(Product[] products, int[] amounts, Reservation reservation, Integer[] order,
+                              int locked) {
+        if (locked < order.length) {
+            synchronized (products[order[locked]]) {
+                return buyLocked(products, amounts, reservation, order, locked + 1);
+            }
+        }
+
+        for (int i = 0; i < products.length; i++) {
+            // Units reserved under this reservation are available to it
+            int held = (reservation == null ? 0 : amounts[i]);
+
+            if (available(products[i]) + held < amounts[i]) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < products.length; i++) {
+            products[i].buyAmount(amounts[i]);
+
+            if (reservation != null) {
+                slot(products[i]).reserved -= amounts[i];
+            }
+        }
+
+        return true;
+    }
+
+    private void scheduleExpiry(Reservation reservation, long timeoutMillis) {
+        reservation.expiry = expirer.schedule(() -> release(reservation), timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Units of a product currently reserved. Only read or changed while holding the product's lock.
+     */
+    private static class Slot {
+        private int reserved;
+    }
+
+    /**
+     * Units of one or more products held for a single customer.
+     */
+    public static class Reservation {
+        private final ArrayList<Product> products = new ArrayList<>();
+        private final ArrayList<Integer> quantities = new ArrayList<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private volatile ScheduledFuture<?> expiry;
+
+        private void add(Product product, int quantity) {
+            products.add(product);
+            quantities.add(quantity);
+        }
+
+        private void cancelExpiry() {
+            ScheduledFuture<?> future = expiry;
+
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        public ArrayList<Product> getProducts() {
+            return products;
+        }
+
+        public ArrayList<Integer> getQuantities() {
+            return quantities;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserDirectory.java
+ *
+ * This class keeps every registered account in memory, keyed by email, so that logging in and
+ * checking whether an email is already taken don't require reading user_list.csv or looping
+ * through every customer and seller. It is loaded once when the marketplace starts up and is
+ * then kept up to date as new accounts are created, rather than being rebuilt.
+ *
+ * Each entry is stored in the same form as a line of user_list.csv (email, password, account
+ * type), which is what the LoginMenu already expects to work with. If an email appears on more
+ * than one line, the first line is the one used, just as when the file was searched from the top.
+ * Customers and sellers that the Marketplace has but user_list.csv doesn't can't log in (there is
+ * no password to check), but their emails still count as taken when someone signs up.
+ *
+ * Each email is also given a numeric user id, starting at 0, so that purchases and sales totals
+ * can refer to a user by an int rather than by their email.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-02-2022
+ *
+ */
+
+public class UserDirectory {
+    public static final String USER_FILE = "user_list.csv";
+
+    private final ConcurrentHashMap<String, String[]> usersByEmail = new ConcurrentHashMap<>();
+    private final Set<String> emailsWithoutLogin = ConcurrentHashMap.newKeySet();
+    private final AttributeDictionary userIds = new AttributeDictionary();
+
+    /**
+     * Creates an empty directory, to which accounts are only added through addUser().
+     */
+    public UserDirectory() {
+    }
+
+    /**
+     * @param marketplace - used to register any customers/sellers that are not in user_list.csv
+     */
+    public UserDirectory(Marketplace marketplace) {
+        loadUserFile(new File(USER_FILE));
+
+        for (Customer c : marketplace.getAllCustomers()) {
+            if (!usersByEmail.containsKey(c.getEmail())) {
+                emailsWithoutLogin.add(c.getEmail());
+            }
+        }
+        for (Seller s : marketplace.getAllSellers()) {
+            if (!usersByEmail.containsKey(s.getEmail())) {
+                emailsWithoutLogin.add(s.getEmail());
+            }
+        }
+    }
+
+    /**
+     * Reads user_list.csv a single time, adding each line to the directory. If an email is on
+     * more than one line, the first line for it is the one kept.
+     *
+     * @param f - user_list.csv
+     */
+    private void loadUserFile(File f) {
+        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
+            String line = br.readLine();
+
+            while (line != null) {
+                String[] userInfo = line.split(",");
+
+                if (userInfo.length >= 3) {
+                    usersByEmail.putIfAbsent(userInfo[0], userInfo);
+                }
+
+                line = br.readLine();
+            }
+        } catch (IOException e) {
+            System.out.println("Error! Issue while reading user_list.csv to build the user directory.");
+        }
+    }
+
+    /**
+     * Finds the info corresponding to an email, in the same format as a line of user_list.csv.
+     *
+     * @param email - email being looked up
+     * @return      - user info, or null if no account in user_list.csv uses that email
+     */
+    public String[] findUser(String email) {
+        return usersByEmail.get(email);
+    }
+
+    /**
+     * @param email - email to be checked
+     * @return      - true if an account already exists under this email
+     */
+    public boolean contains(String email) {
+        return usersByEmail.containsKey(email) || emailsWithoutLogin.contains(email);
+    }
+
+    /**
+     * Registers a new account, unless the email is already taken. This should be called before
+     * the Customer or Seller is constructed with newUser set to true, so that two accounts can
+     * never be created under the same email.
+     *
+     * @param email       - email of the new account
+     * @param password    - password of the new account
+     * @param accountType - "customer" or "seller"
+     * @return            - false if an account already exists under this email
+     */
+    public boolean addUser(String email, String password, String accountType) {
+        if (emailsWithoutLogin.contains(email)) {
+            return false;
+        }
+
+        return usersByEmail.putIfAbsent(email, new String[] { email, password, accountType }) == null;
+    }
+
+    /**
+     * @param email - email of a user
+     * @return      - the user's id, which is given out the first time it is asked for
+     */
+    public int idOf(String email) {
+        return userIds.encode(email);
+    }
+
+    /**
+     * @param userId - id from idOf()
+     * @return       - email of that user
+     */
+    public String emailOf(int userId) {
+        return userIds.decode(userId);
+    }
+
+    /**
+     * @return - number of accounts in the directory
+     */
+    public int size() {
+        return usersByEmail.size();
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DashboardBenchmark.java
+ *
+ * Measures building the "Items Purchased by Customer" list of the seller dashboard for the most
+ * popular store, both the way SellerDashboard.dashboardSort used to (format every customer, then
+ * insertion sort) and by taking one page from SalesRanking. The insertion sort is quadratic, so
+ * it has its own state that only goes up to a scale of 10^4.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-10-2022
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DashboardBenchmark {
+    @State(Scope.Benchmark)
+    public static class Customers {
+        @Param({ "1000", "10000" })
+        public int scale;
+
+        private MarketDataGenerator data;
+        private String storeName;
+        private int[] productsPerCustomer;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            data = new MarketDataGenerator(scale);
+            storeName = data.storeNames[0];
+            productsPerCustomer = new int[scale];
+
+            for (Map.Entry<String, Integer> total : data.unitsByCustomer(storeName).entrySet()) {
+                productsPerCustomer[Integer.parseInt(total.getKey().substring(4, total.getKey().indexOf('@')))] =
+                        total.getValue();
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Totals {
+        @Param({ "1000", "10000", "100000", "1000000" })
+        public int scale;
+
+        private HashMap<String, Integer> unitsByCustomer;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MarketDataGenerator data = new MarketDataGenerator(scale);
+            unitsByCustomer = data.unitsByCustomer(data.storeNames[0]);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<String> formatAndInsertionSort(Customers state) {
+        MarketDataGenerator data = state.data;
+        String storeName = state.storeName;
+        int[] productsPerCustomer = state.productsPerCustomer;
+
+        ArrayList<String> customerList = new ArrayList<>();
+        customerList.add(String.format("- Customer: %s | Items Purchased From %s: %d",
+                                       data.emails[0], storeName, productsPerCustomer[0]));
+        ArrayList<Integer> numList = new ArrayList<>();
+        numList.add(productsPerCustomer[0]);
+
+        for (int i = 1; i < state.scale; i++) {
+            for (int j = 0; j < i; j++) {
+                if (productsPerCustomer[i] > numList.get(j)) {
+                    customerList.add(j, String.format("- Customer: %s | Items Purchased From %s: %d",
+                                     data.emails[i], storeName, productsPerCustomer[i]));
+                    numList.add(j, productsPerCustomer[i]);
+                    break;
+                } else if (j == i - 1) {
+                    customerList.add(String.format("- Customer: %s | Items Purchased From %s: %d",
+                                     data.emails[i], storeName, productsPerCustomer[i]));
+                    numList.add(productsPerCustomer[i]);
+                }
+            }
+        }
+
+        return customerList;
+    }
+
+    @Benchmark
+    public ArrayList<SalesRanking.Entry> rankedPage(Totals state) {
+        return SalesRanking.page(state.unitsByCustomer, SalesRanking.HIGHEST_FIRST, SellerDashboard.PAGE_SIZE,
+                                 null);
+    }
+}
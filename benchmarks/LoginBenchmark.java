@@ -0,0 +1,103 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * LoginBenchmark.java
+ *
+ * Measures looking up an account by email, both the way LoginMenu.findUser used to (reading
+ * user_list.csv from the start) and through the UserDirectory. Half of the lookups are for
+ * emails that don't exist, like a user mistyping their email.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-10-2022
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoginBenchmark {
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int scale;
+
+    private MarketDataGenerator data;
+    private File userFile;
+    private UserDirectory userDirectory;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new MarketDataGenerator(scale);
+        userFile = File.createTempFile("user_list", ".csv");
+        data.writeUserFile(userFile);
+
+        userDirectory = new UserDirectory();
+
+        for (int i = 0; i < scale; i++) {
+            userDirectory.addUser(data.emails[i], data.passwords[i], "customer");
+        }
+
+        random = new Random(MarketDataGenerator.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userFile.delete();
+    }
+
+    private String nextEmail() {
+        int i = random.nextInt(scale * 2);
+        return (i < scale ? data.emails[i] : "missing" + i + "@example.com");
+    }
+
+    @Benchmark
+    public String[] fileScan() throws IOException {
+        String email = nextEmail();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(userFile))) {
+            String line = br.readLine();
+
+            while (line != null) {
+                String[] userInfo = line.split(",");
+
+                if (email.equals(userInfo[0])) {
+                    return userInfo;
+                }
+
+                line = br.readLine();
+            }
+        }
+
+        return null;
+    }
+
+    @Benchmark
+    public String[] directory() {
+        return userDirectory.findUser(nextEmail());
+    }
+
+    @Benchmark
+    public boolean newEmailCheck() {
+        return userDirectory.contains(nextEmail());
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * MarketDataGenerator.java
+ *
+ * Generates a synthetic marketplace for the benchmarks: users, stores, products, and purchase
+ * history, all scaled from a single number (anywhere from 10^3 to 10^6). The same scale and seed
+ * always produce the same data, so benchmark results can be compared between changes.
+ *
+ * At a scale of n there are n users, n products, n / 100 stores (at least one), and 5n purchases.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-10-2022
+ *
+ */
+
+public class MarketDataGenerator {
+    public static final long SEED = 20221210L;
+
+    private static final String[] ITEMS = { "Shirt", "Pants", "Jacket", "Dress", "Hoodie", "Skirt",
+        "Sweater", "Shorts", "Coat", "Scarf", "Socks", "Hat" };
+    private static final String[] ADJECTIVES = { "Classic", "Slim", "Vintage", "Cozy", "Summer",
+        "Winter", "Everyday", "Premium", "Relaxed", "Athletic" };
+    private static final String[] MATERIALS = { "cotton", "wool", "denim", "linen", "silk",
+        "polyester", "leather", "fleece" };
+    private static final String[] COLOURS = { "black", "white", "blue", "red", "green", "grey",
+        "navy", "beige", "pink", "yellow" };
+
+    public final int scale;
+
+    public final String[] emails;
+    public final String[] passwords;
+
+    public final String[] storeNames;
+
+    public final String[] prodNames;
+    public final String[] descriptions;
+    public final String[] productStores;
+    public final String[] materials;
+    public final String[] colours;
+    public final double[] prices;
+    public final int[] stock;
+
+    // Purchase i was made by customer purchaseCustomers[i] of product purchaseProducts[i]
+    public final int[] purchaseCustomers;
+    public final int[] purchaseProducts;
+    public final int[] purchaseQuantities;
+
+    /**
+     * @param scale - number of users and products to generate
+     */
+    public MarketDataGenerator(int scale) {
+        this.scale = scale;
+        Random random = new Random(SEED);
+
+        emails = new String[scale];
+        passwords = new String[scale];
+
+        for (int i = 0; i < scale; i++) {
+            emails[i] = "user" + i + "@example.com";
+            passwords[i] = Long.toHexString(random.nextLong());
+        }
+
+        storeNames = new String[Math.max(1, scale / 100)];
+
+        for (int i = 0; i < storeNames.length; i++) {
+            storeNames[i] = "Store " + i;
+        }
+
+        prodNames = new String[scale];
+        descriptions = new String[scale];
+        productStores = new String[scale];
+        materials = new String[scale];
+        colours = new String[scale];
+        prices = new double[scale];
+        stock = new int[scale];
+
+        for (int i = 0; i < scale; i++) {
+            String item = ITEMS[random.nextInt(ITEMS.length)];
+
+            materials[i] = MATERIALS[random.nextInt(MATERIALS.length)];
+            colours[i] = COLOURS[random.nextInt(COLOURS.length)];
+            prodNames[i] = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + item + " " + i;
+            descriptions[i] = "A " + colours[i] + " " + item.toLowerCase() + " made from " + materials[i];
+            productStores[i] = storeNames[random.nextInt(storeNames.length)];
+            prices[i] = 5 + random.nextInt(19500) / 100.0;
+            stock[i] = random.nextInt(500);
+        }
+
+        int purchases = scale * 5;
+        purchaseCustomers = new int[purchases];
+        purchaseProducts = new int[purchases];
+        purchaseQuantities = new int[purchases];
+
+        for (int i = 0; i < purchases; i++) {
+            // Skewed so that some customers and products are much more popular than others
+            purchaseCustomers[i] = skewed(random, scale);
+            purchaseProducts[i] = skewed(random, scale);
+            purchaseQuantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    /**
+     * @param storeName - name of a store
+     * @return          - items purchased from that store, by customer email
+     */
+    public HashMap<String, Integer> unitsByCustomer(String storeName) {
+        HashMap<String, Integer> totals = new HashMap<>();
+
+        for (int i = 0; i < purchaseCustomers.length; i++) {
+            if (productStores[purchaseProducts[i]].equals(storeName)) {
+                totals.merge(emails[purchaseCustomers[i]], purchaseQuantities[i], Integer::sum);
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Writes the users in the same format as user_list.csv.
+     *
+     * @param f - file to write to
+     * @throws IOException if the file could not be written
+     */
+    public void writeUserFile(File f) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f, false))) {
+            for (int i = 0; i < scale; i++) {
+                bw.write(emails[i] + "," + passwords[i] + "," + (i % 10 == 0 ? "seller" : "customer"));
+                bw.newLine();
+            }
+        }
+    }
+
+    private static int skewed(Random random, int bound) {
+        double r = random.nextDouble();
+        return (int) (r * r * bound);
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SearchBenchmark.java
+ *
+ * Measures searching the marketplace, both by checking every product's fields with contains()
+ * (the way CustomerMenu.searchMarketplace used to) and through the SearchIndex. The queries
+ * range from very common ("blue") to matching a single product.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-10-2022
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int scale;
+
+    @Param({ "blue", "hoodie made from wool", "Jacket 7", "no such thing" })
+    public String query;
+
+    private MarketDataGenerator data;
+    private SearchIndex<Integer> searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new MarketDataGenerator(scale);
+        searchIndex = new SearchIndex<>();
+
+        for (int i = 0; i < scale; i++) {
+            searchIndex.add(i, data.prodNames[i], data.descriptions[i], data.productStores[i],
+                            data.materials[i], data.colours[i]);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Integer> scan() {
+        ArrayList<Integer> results = new ArrayList<>();
+
+        for (int i = 0; i < scale; i++) {
+            if (data.prodNames[i].toLowerCase().contains(query.toLowerCase().trim()) ||
+                data.descriptions[i].toLowerCase().contains(query.toLowerCase().trim()) ||
+                data.productStores[i].toLowerCase().contains(query.toLowerCase().trim()) ||
+                data.materials[i].toLowerCase().contains(query.toLowerCase().trim()) ||
+                data.colours[i].toLowerCase().contains(query.toLowerCase().trim())) {
+
+                results.add(i);
+            }
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> index() {
+        return searchIndex.search(query);
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SortBenchmark.java
+ *
+ * Measures listing the marketplace by price, both with the insertion sort that
+ * CustomerMenu.viewByX used to run on every request and by reading the SortedIndex. Also
+ * measures the cost of keeping the index up to date when a product's key changes. The insertion
+ * sort is quadratic, so it has its own state that only goes up to a scale of 10^4, rather than
+ * being listed at scales it doesn't actually run at.
+ *
+ * @author Sahithi Gokavarapu
+ * @author Dhruv Jain
+ * @author George O'Carroll
+ * @author Nishitha Pelaprolu
+ * @author Ateeq Ramlan
+ *
+ * @version 12-10-2022
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortBenchmark {
+    @State(Scope.Benchmark)
+    public static class Unsorted {
+        @Param({ "1000", "10000" })
+        public int scale;
+
+        private double[] prices;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            prices = new MarketDataGenerator(scale).prices.clone();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Indexed {
+        @Param({ "1000", "10000", "100000", "1000000" })
+        public int scale;
+
+        private double[] prices;
+        private SortedIndex<Integer> priceIndex;
+        private Integer[] keys;
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            prices = new MarketDataGenerator(scale).prices.clone();
+            priceIndex = new SortedIndex<>(i -> prices[i]);
+
+            // The index finds keys by identity, so every call has to pass the same Integer
+            keys = new Integer[scale];
+
+            for (int i = 0; i < scale; i++) {
+                keys[i] = i;
+                priceIndex.add(keys[i]);
+            }
+
+            random = new Random(MarketDataGenerator.SEED);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Integer> insertionSort(Unsorted state) {
+        double[] prices = state.prices;
+        ArrayList<Integer> marketList = new ArrayList<>();
+        marketList.add(0);
+
+        for (int i = 1; i < state.scale; i++) {
+            for (int j = 0; j < i; j++) {
+                if (!(prices[i] > prices[marketList.get(j)])) {
+                    marketList.add(j, i);
+                    break;
+                } else if (j == i - 1) {
+                    marketList.add(i);
+                }
+            }
+        }
+
+        return marketList;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> index(Indexed state) {
+        return state.priceIndex.inOrder(true);
+    }
+
+    @Benchmark
+    public void refresh(Indexed state) {
+        int i = state.random.nextInt(state.scale);
+        state.prices[i] = 5 + state.random.nextInt(19500) / 100.0;
+        state.priceIndex.refresh(state.keys[i]);
+    }
+}
@@ -0,0 +1,78 @@
+#!/bin/sh
+#
+# run.sh
+#
+# Builds and runs the JMH benchmarks. They measure the index and lookup classes (SortedIndex,
+# SearchIndex, SalesRanking, UserDirectory, and so on) on synthetic data made by
+# MarketDataGenerator, alongside the scan each one replaced. They don't go through the menus, so
+# they show how the lookups behind sorting, searching, logging in, and the seller dashboard
+# scale, not how long those menu paths take end to end; LoadGenerator is for that.
+#
+# The benchmarks use the marketplace classes, so they are compiled together with every .java
+# file in the project root (Product, Customer, Marketplace, and the rest have to be there). JMH won't run benchmarks in the default package, and classes
+# in a package can't use ones in the default package, so every file is copied into
+# benchmarks/target/src with a package line added and compiled from there. The JMH jars are
+# downloaded from Maven Central into benchmarks/target/lib the first time, and the code that
+# runs the benchmarks is generated by JMH's annotation processor while compiling.
+#
+# Needs JDK 21 or newer on the PATH, since the project's own sources (MarketServer and
+# LoadGenerator) use virtual threads, and curl. Any arguments are passed to JMH, for example:
+#
+#     sh benchmarks/run.sh                          every benchmark at every scale
+#     sh benchmarks/run.sh SortBenchmark            one class
+#     sh benchmarks/run.sh Login -p scale=1000      one class at one scale
+#     sh benchmarks/run.sh -l                       list the benchmarks
+#
+# Giving -p scale=... replaces the scales of every benchmark, including the quadratic baselines
+# that are otherwise only run up to 10^4.
+#
+# @author Sahithi Gokavarapu
+# @author Dhruv Jain
+# @author George O'Carroll
+# @author Nishitha Pelaprolu
+# @author Ateeq Ramlan
+#
+# @version 12-24-2022
+#
+
+set -e
+
+JMH_VERSION=1.37
+REPOSITORY=https://repo1.maven.org/maven2
+
+BENCHMARKS=$(cd "$(dirname "$0")" && pwd)
+PROJECT=$(dirname "$BENCHMARKS")
+TARGET=$BENCHMARKS/target
+LIB=$TARGET/lib
+SOURCES=$TARGET/src
+CLASSES=$TARGET/classes
+PACKAGE=marketbenchmarks
+
+# Downloads a jar, given the path of its group, its name, and its version
+fetch() {
+    if [ ! -f "$LIB/$2-$3.jar" ]; then
+        echo "Downloading $2-$3.jar"
+        curl -fsSL -o "$LIB/$2-$3.jar" "$REPOSITORY/$1/$2/$3/$2-$3.jar"
+    fi
+}
+
+mkdir -p "$LIB"
+fetch org/openjdk/jmh jmh-core $JMH_VERSION
+fetch org/openjdk/jmh jmh-generator-annprocess $JMH_VERSION
+fetch net/sf/jopt-simple jopt-simple 5.0.4
+fetch org/apache/commons commons-math3 3.6.1
+
+for jar in "$LIB"/*.jar; do
+    CLASSPATH_JARS="${CLASSPATH_JARS:+$CLASSPATH_JARS:}$jar"
+done
+
+rm -rf "$SOURCES" "$CLASSES"
+mkdir -p "$SOURCES" "$CLASSES"
+
+for source in "$PROJECT"/*.java "$BENCHMARKS"/*.java; do
+    { echo "package $PACKAGE;"; cat "$source"; } > "$SOURCES/$(basename "$source")"
+done
+
+javac -cp "$CLASSPATH_JARS" -processorpath "$CLASSPATH_JARS" -d "$CLASSES" "$SOURCES"/*.java
+
+java -cp "$CLASSES:$CLASSPATH_JARS" org.openjdk.jmh.Main "$@"